@@ -0,0 +1,112 @@
+package com.productmanagement.benchmark;
+
+import com.productmanagement.ProductManagementApplication;
+import com.productmanagement.config.CacheConfig;
+import com.productmanagement.dto.AddressRequest;
+import com.productmanagement.dto.CartItemRequest;
+import com.productmanagement.dto.CategoryRequest;
+import com.productmanagement.dto.ProductRequest;
+import com.productmanagement.dto.RegisterRequest;
+import com.productmanagement.service.AddressService;
+import com.productmanagement.service.CartService;
+import com.productmanagement.service.CategoryService;
+import com.productmanagement.service.OrderService;
+import com.productmanagement.service.ProductService;
+import com.productmanagement.service.UserService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@State(Scope.Benchmark)
+public class ApplicationState {
+
+    static final int CART_LINES = 20;
+    static final String USERNAME = "benchmark";
+
+    ConfigurableApplicationContext context;
+    CartService cartService;
+    OrderService orderService;
+    ProductService productService;
+    UserService userService;
+    Cache productPages;
+
+    Long userId;
+    Long orderId;
+    Long productId;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(ProductManagementApplication.class)
+                .profiles("dev", "benchmark")
+                .run();
+        cartService = context.getBean(CartService.class);
+        orderService = context.getBean(OrderService.class);
+        productService = context.getBean(ProductService.class);
+        userService = context.getBean(UserService.class);
+        productPages = context.getBean(CacheManager.class).getCache(CacheConfig.PRODUCT_PAGES);
+        seed();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    // One user with a full cart and one placed order of the same size
+    private void seed() {
+        CategoryRequest category = new CategoryRequest();
+        category.setName("Benchmark");
+        Long categoryId = context.getBean(CategoryService.class).createCategory(category).getId();
+
+        List<Long> productIds = new ArrayList<>();
+        for (int i = 0; i < CART_LINES; i++) {
+            ProductRequest product = new ProductRequest();
+            product.setName("Product " + i);
+            product.setDescription("Benchmark product " + i);
+            product.setPrice(new BigDecimal("19.99").add(BigDecimal.valueOf(i)));
+            product.setCategoryId(categoryId);
+            product.setQuantity(1_000_000);
+            productIds.add(productService.createProduct(product).getId());
+        }
+        productId = productIds.get(0);
+
+        RegisterRequest register = new RegisterRequest();
+        register.setUsername(USERNAME);
+        register.setPassword("benchmark");
+        register.setEmail("benchmark@example.com");
+        register.setFirstName("Bench");
+        register.setLastName("Mark");
+        userId = userService.register(register).getId();
+
+        AddressRequest address = new AddressRequest();
+        address.setStreet("1 Main St");
+        address.setCity("Springfield");
+        address.setState("IL");
+        address.setZipCode("62701");
+        address.setCountry("USA");
+        Long addressId = context.getBean(AddressService.class).addAddress(userId, address).getId();
+
+        fillCart(productIds);
+        orderId = orderService.placeOrder(userId, addressId).getId();
+        fillCart(productIds);
+    }
+
+    private void fillCart(List<Long> productIds) {
+        for (Long id : productIds) {
+            CartItemRequest item = new CartItemRequest();
+            item.setProductId(id);
+            item.setQuantity(3);
+            cartService.addItemToCart(userId, item);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.productmanagement.benchmark;
+
+import com.productmanagement.dto.CartResponse;
+import com.productmanagement.dto.CursorPageResponse;
+import com.productmanagement.dto.OrderResponse;
+import com.productmanagement.dto.ProductResponse;
+import com.productmanagement.dto.ProductSort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+// Throughput plus sampled latency percentiles; the pom adds the gc profiler for allocation rates
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiceBenchmark {
+
+    @Benchmark
+    public CartResponse cartView(ApplicationState state) {
+        return state.cartService.getCart(state.userId);
+    }
+
+    @Benchmark
+    public OrderResponse orderDetail(ApplicationState state) {
+        return state.orderService.getOrderById(state.orderId, state.userId);
+    }
+
+    @Benchmark
+    public CursorPageResponse<ProductResponse> productPageUncached(ApplicationState state) {
+        state.productPages.clear();
+        return state.productService.getAllProducts(null, ApplicationState.CART_LINES, ProductSort.ID,
+                state.productService.getProductListEtag(null));
+    }
+
+    @Benchmark
+    public ProductResponse productByIdCached(ApplicationState state) {
+        return state.productService.getProductById(state.productId);
+    }
+
+    @Benchmark
+    public UserDetails loadUserByUsername(ApplicationState state) {
+        return state.userService.loadUserByUsername(ApplicationState.USERNAME);
+    }
+}
@@ -0,0 +1,57 @@
+package com.productmanagement.loadtest;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+class LatencyRecorder {
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentSkipListMap<>();
+
+    void record(String endpoint, long nanos, boolean success) {
+        Endpoint stats = endpoints.computeIfAbsent(endpoint, name -> new Endpoint());
+        stats.add(nanos);
+        if (!success) {
+            stats.errors.increment();
+        }
+    }
+
+    Map<String, Endpoint> getEndpoints() {
+        return endpoints;
+    }
+
+    long getRequestCount() {
+        return endpoints.values().stream().mapToLong(Endpoint::getCount).sum();
+    }
+
+    static class Endpoint {
+
+        private final List<Long> latencies = new ArrayList<>();
+        private final LongAdder errors = new LongAdder();
+
+        private synchronized void add(long nanos) {
+            latencies.add(nanos);
+        }
+
+        synchronized long getCount() {
+            return latencies.size();
+        }
+
+        long getErrors() {
+            return errors.sum();
+        }
+
+        synchronized double percentileMillis(double percentile) {
+            if (latencies.isEmpty()) {
+                return 0;
+            }
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.productmanagement.loadtest;
+
+import com.productmanagement.entity.Address;
+import com.productmanagement.entity.Cart;
+import com.productmanagement.entity.CartItem;
+import com.productmanagement.entity.Category;
+import com.productmanagement.entity.Inventory;
+import com.productmanagement.entity.Product;
+import com.productmanagement.entity.Role;
+import com.productmanagement.entity.User;
+import com.productmanagement.repository.AddressRepository;
+import com.productmanagement.repository.CartItemRepository;
+import com.productmanagement.repository.CartRepository;
+import com.productmanagement.repository.CategoryRepository;
+import com.productmanagement.repository.InventoryRepository;
+import com.productmanagement.repository.ProductRepository;
+import com.productmanagement.repository.RoleRepository;
+import com.productmanagement.repository.UserRepository;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+@Component
+@Profile("loadtest")
+public class LoadTestDataSeeder {
+
+    static final String PASSWORD = "loadtest";
+
+    private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final InventoryRepository inventoryRepository;
+    private final RoleRepository roleRepository;
+    private final UserRepository userRepository;
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final AddressRepository addressRepository;
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${app.loadtest.users:50}")
+    private int userCount;
+
+    @Value("${app.loadtest.products:200}")
+    private int productCount;
+
+    @Value("${app.loadtest.cart-lines:2}")
+    private int cartLines;
+
+    private final List<SeededUser> users = new ArrayList<>();
+    private final List<Long> productIds = new ArrayList<>();
+
+    public LoadTestDataSeeder(CategoryRepository categoryRepository, ProductRepository productRepository,
+                              InventoryRepository inventoryRepository, RoleRepository roleRepository,
+                              UserRepository userRepository, CartRepository cartRepository,
+                              CartItemRepository cartItemRepository, AddressRepository addressRepository,
+                              PasswordEncoder passwordEncoder) {
+        this.categoryRepository = categoryRepository;
+        this.productRepository = productRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.roleRepository = roleRepository;
+        this.userRepository = userRepository;
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.addressRepository = addressRepository;
+        this.passwordEncoder = passwordEncoder;
+    }
+
+    // Runs after DataInitializer has created the roles; the password is hashed once and shared by every user
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void seed() {
+        Category category = new Category();
+        category.setName("Load Test");
+        category = categoryRepository.save(category);
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < productCount; i++) {
+            Product product = new Product();
+            product.setName(String.format("Load Test Product %05d", i));
+            product.setDescription("Seeded for the load test");
+            product.setPrice(new BigDecimal("9.99").add(BigDecimal.valueOf(i % 100)));
+            product.setEnabled(true);
+            product.setCategory(category);
+            products.add(product);
+        }
+        products = productRepository.saveAll(products);
+
+        List<Inventory> inventories = new ArrayList<>();
+        for (Product product : products) {
+            Inventory inventory = new Inventory();
+            inventory.setProduct(product);
+            inventory.setQuantity(Integer.MAX_VALUE / 2);
+            inventories.add(inventory);
+            productIds.add(product.getId());
+        }
+        inventoryRepository.saveAll(inventories);
+
+        Role userRole = roleRepository.findByName(Role.RoleType.USER).orElseThrow();
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        for (int i = 0; i < userCount; i++) {
+            User user = new User();
+            user.setUsername("loaduser" + i);
+            user.setPassword(passwordHash);
+            user.setEmail("loaduser" + i + "@example.com");
+            user.setFirstName("Load");
+            user.setLastName("User " + i);
+            user.setRoles(Set.of(userRole));
+            user = userRepository.save(user);
+
+            Cart cart = new Cart();
+            cart.setUser(user);
+            cart = cartRepository.save(cart);
+            for (int line = 0; line < cartLines; line++) {
+                CartItem item = new CartItem();
+                item.setCart(cart);
+                item.setProduct(products.get((i * cartLines + line) % products.size()));
+                item.setQuantity(1);
+                cartItemRepository.save(item);
+            }
+
+            Address address = new Address();
+            address.setUser(user);
+            address.setStreet(i + " Load Test Way");
+            address.setCity("Springfield");
+            address.setState("IL");
+            address.setZipCode("62701");
+            address.setCountry("USA");
+            address = addressRepository.save(address);
+
+            users.add(new SeededUser(user.getId(), user.getUsername(), address.getId()));
+        }
+    }
+
+    public List<SeededUser> getUsers() {
+        return Collections.unmodifiableList(users);
+    }
+
+    public List<Long> getProductIds() {
+        return Collections.unmodifiableList(productIds);
+    }
+
+    @Data
+    @AllArgsConstructor
+    public static class SeededUser {
+        private Long id;
+        private String username;
+        private Long addressId;
+    }
+}
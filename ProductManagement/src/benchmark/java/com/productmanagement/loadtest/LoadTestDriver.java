@@ -0,0 +1,170 @@
+package com.productmanagement.loadtest;
+
+import com.productmanagement.ProductManagementApplication;
+import com.productmanagement.security.TokenService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.Environment;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Boots the application on the loadtest profile, then drives it over HTTP in three phases:
+// catalog reads, cart writes and checkout. Run with: mvn -P benchmark compile exec:exec@load-test
+public class LoadTestDriver {
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final String baseUrl;
+    private final List<LoadTestDataSeeder.SeededUser> users;
+    private final List<Long> productIds;
+    private final String[] tokens;
+    private final Statistics statistics;
+    private final int clients;
+    private final Duration phaseDuration;
+    private final boolean virtualThreads;
+
+    LoadTestDriver(ConfigurableApplicationContext context) {
+        Environment environment = context.getEnvironment();
+        this.baseUrl = "http://localhost:" + environment.getRequiredProperty("local.server.port");
+        this.clients = environment.getProperty("app.loadtest.clients", Integer.class, 32);
+        this.phaseDuration = Duration.ofSeconds(environment.getProperty("app.loadtest.phase-seconds", Long.class, 15L));
+        this.virtualThreads = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+
+        LoadTestDataSeeder seeder = context.getBean(LoadTestDataSeeder.class);
+        this.users = seeder.getUsers();
+        this.productIds = seeder.getProductIds();
+
+        // Bearer tokens keep BCrypt out of the measurements
+        TokenService tokenService = context.getBean(TokenService.class);
+        this.tokens = users.stream()
+                .map(user -> tokenService.issueToken(user.getId(), user.getUsername(), List.of("USER")))
+                .toArray(String[]::new);
+
+        this.statistics = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getStatistics();
+    }
+
+    public static void main(String[] args) throws Exception {
+        // A devtools restart would run the application in a second context the driver cannot see
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(ProductManagementApplication.class)
+                .profiles("dev", "loadtest")
+                .run(args);
+        try {
+            new LoadTestDriver(context).run();
+        } finally {
+            context.close();
+        }
+    }
+
+    void run() throws InterruptedException {
+        System.out.printf("%nLoad test: %d clients, %d users, %d products, %ds per phase, %s request threads%n%n",
+                clients, users.size(), productIds.size(), phaseDuration.toSeconds(),
+                virtualThreads ? "virtual" : "platform");
+        System.out.printf("%-10s %-28s %9s %7s %9s %9s %9s %10s%n",
+                "phase", "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "stmts/req");
+
+        runPhase("catalog", (client, random, recorder) -> {
+            String query = random.nextBoolean() ? "?size=20" : "?size=20&sort=name";
+            send(recorder, "GET /api/products", get("/api/products" + query, client));
+        });
+
+        runPhase("cart", (client, random, recorder) -> send(recorder, "POST /api/cart/items",
+                post("/api/cart/items", client, cartItemBody(random))));
+
+        runPhase("checkout", (client, random, recorder) -> {
+            send(recorder, "POST /api/cart/items", post("/api/cart/items", client, cartItemBody(random)));
+            send(recorder, "POST /api/orders/checkout", post("/api/orders/checkout", client,
+                    "{\"addressId\":" + users.get(client % users.size()).getAddressId() + "}"));
+        });
+    }
+
+    private void runPhase(String phase, Scenario scenario) throws InterruptedException {
+        LatencyRecorder recorder = new LatencyRecorder();
+        long statementsBefore = statistics.getPrepareStatementCount();
+        long started = System.nanoTime();
+        long deadline = started + phaseDuration.toNanos();
+
+        // Clients only wait on HTTP, so hundreds of them can run on virtual threads
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        for (int i = 0; i < clients; i++) {
+            int client = i;
+            executor.submit(() -> {
+                Random random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    scenario.run(client, random, recorder);
+                }
+            });
+        }
+        executor.shutdown();
+        executor.awaitTermination(phaseDuration.toSeconds() + 60, TimeUnit.SECONDS);
+
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+        long statements = statistics.getPrepareStatementCount() - statementsBefore;
+        double statementsPerRequest = (double) statements / Math.max(recorder.getRequestCount(), 1);
+        for (Map.Entry<String, LatencyRecorder.Endpoint> entry : recorder.getEndpoints().entrySet()) {
+            LatencyRecorder.Endpoint endpoint = entry.getValue();
+            System.out.printf("%-10s %-28s %9d %7d %9.1f %9.2f %9.2f %10.2f%n",
+                    phase, entry.getKey(), endpoint.getCount(), endpoint.getErrors(), endpoint.getCount() / seconds,
+                    endpoint.percentileMillis(50), endpoint.percentileMillis(99), statementsPerRequest);
+        }
+    }
+
+    private void send(LatencyRecorder recorder, String endpoint, HttpRequest request) {
+        long started = System.nanoTime();
+        boolean success;
+        try {
+            HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+            success = response.statusCode() / 100 == 2;
+        } catch (IOException e) {
+            success = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        recorder.record(endpoint, System.nanoTime() - started, success);
+    }
+
+    private HttpRequest get(String path, int client) {
+        return request(path, client).GET().build();
+    }
+
+    private HttpRequest post(String path, int client, String body) {
+        return request(path, client)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+
+    private HttpRequest.Builder request(String path, int client) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", "Bearer " + tokens[client % tokens.length])
+                .timeout(Duration.ofSeconds(30));
+    }
+
+    private String cartItemBody(Random random) {
+        return "{\"productId\":" + productIds.get(random.nextInt(productIds.size())) + ",\"quantity\":1}";
+    }
+
+    @FunctionalInterface
+    private interface Scenario {
+        void run(int client, Random random, LatencyRecorder recorder);
+    }
+}
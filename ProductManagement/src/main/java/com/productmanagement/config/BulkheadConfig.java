@@ -0,0 +1,39 @@
+package com.productmanagement.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.security.autoconfigure.web.servlet.SecurityFilterProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import tools.jackson.databind.ObjectMapper;
+
+@Configuration
+@ConditionalOnProperty(name = "app.bulkhead.enabled", havingValue = "true")
+public class BulkheadConfig {
+
+    // Runs ahead of Spring Security, because Basic authentication already needs a connection
+    @Bean
+    public FilterRegistrationBean<DatabaseBulkheadFilter> databaseBulkheadFilter(
+            @Value("${app.bulkhead.permits:${spring.datasource.hikari.maximum-pool-size:10}}") int permits,
+            @Value("${app.bulkhead.max-wait-ms:5000}") long maxWaitMillis,
+            ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        DatabaseBulkheadFilter filter = new DatabaseBulkheadFilter(permits, maxWaitMillis, objectMapper);
+        Gauge.builder("app.bulkhead.available", filter, DatabaseBulkheadFilter::getAvailablePermits)
+                .description("Free bulkhead permits")
+                .register(meterRegistry);
+        Gauge.builder("app.bulkhead.queued", filter, DatabaseBulkheadFilter::getQueueLength)
+                .description("Requests waiting for a bulkhead permit")
+                .register(meterRegistry);
+        FunctionCounter.builder("app.bulkhead.rejected", filter, DatabaseBulkheadFilter::getRejectedCount)
+                .description("Requests turned away with 503 after waiting too long")
+                .register(meterRegistry);
+
+        FilterRegistrationBean<DatabaseBulkheadFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setOrder(SecurityFilterProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
@@ -0,0 +1,43 @@
+package com.productmanagement.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.util.List;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCT_PAGES = "productPages";
+    public static final String CATEGORIES = "categories";
+    public static final String CATEGORY_LIST = "categoryList";
+
+    @Value("${app.cache.caffeine-spec:maximumSize=10000,expireAfterWrite=10m,recordStats}")
+    private String caffeineSpec;
+
+    @Bean
+    public CacheManager cacheManager(ObjectProvider<ReplicaRouting> replicaRouting, TaskScheduler taskScheduler) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCacheSpecification(caffeineSpec);
+        cacheManager.setCacheNames(List.of(PRODUCTS, PRODUCT_PAGES, CATEGORIES, CATEGORY_LIST));
+        CacheManager target = cacheManager;
+        ReplicaRouting routing = replicaRouting.getIfAvailable();
+        if (routing != null) {
+            target = new DelayedEvictionCacheManager(cacheManager, taskScheduler,
+                    Duration.ofMillis(routing.getMaxLagMillis()));
+        }
+        // Defer evictions until the surrounding transaction commits so a concurrent
+        // reader cannot repopulate an entry with data that is about to change
+        return new TransactionAwareCacheManagerProxy(target);
+    }
+}
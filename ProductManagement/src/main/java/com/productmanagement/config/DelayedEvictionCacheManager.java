@@ -0,0 +1,112 @@
+package com.productmanagement.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Repeats every eviction once more after a delay. With read replicas, a cache miss right after a
+// write can still read the old row from a lagging replica and cache it; the second eviction drops
+// that entry once the replica is within its maximum lag, instead of leaving it until the TTL
+public class DelayedEvictionCacheManager implements CacheManager {
+
+    private final CacheManager target;
+    private final TaskScheduler scheduler;
+    private final Duration delay;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public DelayedEvictionCacheManager(CacheManager target, TaskScheduler scheduler, Duration delay) {
+        this.target = target;
+        this.scheduler = scheduler;
+        this.delay = delay;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = target.getCache(name);
+        return cache != null ? caches.computeIfAbsent(name, key -> new DelayedEvictionCache(cache)) : null;
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return target.getCacheNames();
+    }
+
+    private final class DelayedEvictionCache implements Cache {
+
+        private final Cache cache;
+
+        private DelayedEvictionCache(Cache cache) {
+            this.cache = cache;
+        }
+
+        @Override
+        public String getName() {
+            return cache.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return cache.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            return cache.get(key);
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            return cache.get(key, type);
+        }
+
+        @Override
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            return cache.get(key, valueLoader);
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            cache.put(key, value);
+        }
+
+        @Override
+        public ValueWrapper putIfAbsent(Object key, Object value) {
+            return cache.putIfAbsent(key, value);
+        }
+
+        @Override
+        public void evict(Object key) {
+            cache.evict(key);
+            later(() -> cache.evict(key));
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            later(() -> cache.evict(key));
+            return cache.evictIfPresent(key);
+        }
+
+        @Override
+        public void clear() {
+            cache.clear();
+            later(cache::clear);
+        }
+
+        @Override
+        public boolean invalidate() {
+            later(cache::clear);
+            return cache.invalidate();
+        }
+
+        private void later(Runnable eviction) {
+            scheduler.schedule(eviction, Instant.now().plus(delay));
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.productmanagement.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+// Measures replication lag with a heartbeat row: the primary's clock time is written to the primary
+// and read back from the replica, so the difference is how far behind the replica is. Needs nothing
+// from the database beyond ordinary replication of the replication_heartbeat table
+public class ReplicaLagMonitor implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final ReplicaRouting routing;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, ReplicaRouting routing) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.routing = routing;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        primary.execute("CREATE TABLE IF NOT EXISTS replication_heartbeat (id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.heartbeat-interval-ms:1000}")
+    public void beat() {
+        long now = System.currentTimeMillis();
+        try {
+            if (primary.update("UPDATE replication_heartbeat SET beat_at = ? WHERE id = 1", now) == 0) {
+                primary.update("INSERT INTO replication_heartbeat (id, beat_at) VALUES (1, ?)", now);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not write the replication heartbeat", e);
+        }
+
+        try {
+            Long appliedUpTo = replica.queryForObject("SELECT beat_at FROM replication_heartbeat WHERE id = 1",
+                    Long.class);
+            routing.recordHeartbeat(appliedUpTo != null ? appliedUpTo : 0L);
+        } catch (EmptyResultDataAccessException e) {
+            // The first heartbeat has not reached the replica yet
+            routing.recordHeartbeat(0L);
+        } catch (DataAccessException e) {
+            routing.markUnreachable(e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.productmanagement.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+// Decides whether a read-only transaction may run on the replica. The lag monitor reports the newest
+// primary heartbeat the replica has applied; the replica is used while that heartbeat is at most
+// maxLagMillis old. Each committed write records its time for the user who made it, and that user's
+// reads stay on the primary until the replica has applied a heartbeat written after it
+public class ReplicaRouting {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRouting.class);
+
+    private final long maxLagMillis;
+    // An entry older than the maximum lag can be dropped: a usable replica is past it by definition
+    private final Cache<Long, Long> lastWriteByUserId;
+    // Primary clock time of the newest heartbeat seen on the replica; 0 until the first one arrives
+    private volatile long appliedUpTo;
+    private volatile boolean reachable;
+    // Only used to log changes; starts true so the first problem is reported
+    private volatile boolean usable = true;
+
+    public ReplicaRouting(long maxLagMillis) {
+        this.maxLagMillis = maxLagMillis;
+        this.lastWriteByUserId = Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMillis(maxLagMillis))
+                .build();
+    }
+
+    public boolean canRead(Long userId) {
+        long applied = appliedUpTo;
+        if (!reachable || System.currentTimeMillis() - applied > maxLagMillis) {
+            return false;
+        }
+        if (userId == null) {
+            return true;
+        }
+        Long lastWrite = lastWriteByUserId.getIfPresent(userId);
+        return lastWrite == null || applied >= lastWrite;
+    }
+
+    // Called after the write committed, so any heartbeat stamped later is replicated after it
+    public void recordWrite(Long userId) {
+        lastWriteByUserId.put(userId, System.currentTimeMillis());
+    }
+
+    public void recordHeartbeat(long appliedUpTo) {
+        this.appliedUpTo = appliedUpTo;
+        this.reachable = true;
+        long lag = System.currentTimeMillis() - appliedUpTo;
+        boolean nowUsable = lag <= maxLagMillis;
+        if (nowUsable != usable) {
+            usable = nowUsable;
+            if (nowUsable) {
+                log.info("Replica caught up ({} ms behind); read-only transactions use it again", lag);
+            } else {
+                log.warn("Replica is more than {} ms behind; read-only transactions use the primary", maxLagMillis);
+            }
+        }
+    }
+
+    public void markUnreachable(Exception cause) {
+        reachable = false;
+        if (usable) {
+            usable = false;
+            log.warn("Replica is unreachable; read-only transactions use the primary", cause);
+        }
+    }
+
+    public long getMaxLagMillis() {
+        return maxLagMillis;
+    }
+}
@@ -1,8 +1,11 @@
 package com.productmanagement.controller;
 
 import com.productmanagement.dto.ApiResponse;
+import com.productmanagement.dto.LoginRequest;
 import com.productmanagement.dto.RegisterRequest;
+import com.productmanagement.dto.TokenResponse;
 import com.productmanagement.dto.UserResponse;
+import com.productmanagement.service.AuthService;
 import com.productmanagement.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
@@ -18,9 +21,11 @@ import java.util.Map;
 public class AuthController {
 
     private final UserService userService;
+    private final AuthService authService;
 
-    public AuthController(UserService userService) {
+    public AuthController(UserService userService, AuthService authService) {
         this.userService = userService;
+        this.authService = authService;
     }
 
     @PostMapping("/register")
@@ -33,6 +38,12 @@ public class AuthController {
                 .body(new ApiResponse(true, "Registration successful", data));
     }
 
+    @PostMapping("/login")
+    public ResponseEntity<ApiResponse> login(@Valid @RequestBody LoginRequest request) {
+        TokenResponse token = authService.login(request);
+        return ResponseEntity.ok(new ApiResponse(true, "Login successful", token));
+    }
+
     @GetMapping("/me")
     public ResponseEntity<ApiResponse> getCurrentUser(Authentication authentication) {
         UserResponse user = userService.getUserResponseByUsername(authentication.getName());
@@ -0,0 +1,41 @@
+package com.productmanagement.controller;
+
+import com.productmanagement.dto.ApiResponse;
+import com.productmanagement.dto.CacheStatsResponse;
+import com.productmanagement.dto.SecondLevelCacheStatsResponse;
+import com.productmanagement.service.CacheStatsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/cache")
+@PreAuthorize("hasRole('SUPER_ADMIN')")
+public class CacheController {
+
+    private final CacheStatsService cacheStatsService;
+
+    public CacheController(CacheStatsService cacheStatsService) {
+        this.cacheStatsService = cacheStatsService;
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<ApiResponse> getCacheStats() {
+        List<CacheStatsResponse> stats = cacheStatsService.getCacheStats();
+        return ResponseEntity.ok(new ApiResponse(true, "Cache statistics retrieved successfully", stats));
+    }
+
+    @GetMapping("/second-level")
+    public ResponseEntity<ApiResponse> getSecondLevelCacheStats() {
+        List<SecondLevelCacheStatsResponse> stats = cacheStatsService.getSecondLevelCacheStats();
+        String message = cacheStatsService.isStatisticsEnabled()
+                ? "Second-level cache statistics retrieved successfully"
+                : "Hibernate statistics are disabled; set spring.jpa.properties.hibernate.generate_statistics=true "
+                        + "for hit, miss and put counts";
+        return ResponseEntity.ok(new ApiResponse(true, message, stats));
+    }
+}
@@ -1,15 +1,17 @@
 package com.productmanagement.controller;
 
 import com.productmanagement.dto.ApiResponse;
+import com.productmanagement.dto.CartBatchRequest;
 import com.productmanagement.dto.CartItemRequest;
 import com.productmanagement.dto.CartResponse;
+import com.productmanagement.dto.CartSummaryResponse;
+import com.productmanagement.security.CurrentUserId;
 import com.productmanagement.service.CartService;
-import com.productmanagement.service.UserService;
 import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequestMapping("/api/cart")
@@ -17,48 +19,54 @@ import org.springframework.web.bind.annotation.*;
 public class CartController {
 
     private final CartService cartService;
-    private final UserService userService;
 
-    public CartController(CartService cartService, UserService userService) {
+    public CartController(CartService cartService) {
         this.cartService = cartService;
-        this.userService = userService;
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse> getCart(Authentication authentication) {
-        Long userId = userService.getUserByUsername(authentication.getName()).getId();
+    public ResponseEntity<ApiResponse> getCart(@CurrentUserId Long userId, WebRequest webRequest) {
+        // One aggregate query decides the 304 before any cart line is loaded
+        String etag = cartService.getCartEtag(userId);
+        if (etag != null && webRequest.checkNotModified(etag)) {
+            return null;
+        }
         CartResponse cart = cartService.getCart(userId);
         return ResponseEntity.ok(new ApiResponse(true, "Cart retrieved successfully", cart));
     }
 
     @PostMapping("/items")
     public ResponseEntity<ApiResponse> addItemToCart(@Valid @RequestBody CartItemRequest request,
-                                                       Authentication authentication) {
-        Long userId = userService.getUserByUsername(authentication.getName()).getId();
-        CartResponse cart = cartService.addItemToCart(userId, request);
+                                                       @CurrentUserId Long userId) {
+        CartSummaryResponse cart = cartService.addItemToCart(userId, request);
         return ResponseEntity.ok(new ApiResponse(true, "Item added to cart successfully", cart));
     }
 
+    // Applies a list of add/set/remove operations in one transaction, e.g. a re-order
+    @PostMapping("/items:batch")
+    public ResponseEntity<ApiResponse> applyBatch(@Valid @RequestBody CartBatchRequest request,
+                                                  @CurrentUserId Long userId) {
+        CartResponse cart = cartService.applyBatch(userId, request.getOperations());
+        return ResponseEntity.ok(new ApiResponse(true, "Cart updated successfully", cart));
+    }
+
     @PutMapping("/items/{cartItemId}")
     public ResponseEntity<ApiResponse> updateCartItem(@PathVariable Long cartItemId,
                                                        @RequestParam Integer quantity,
-                                                       Authentication authentication) {
-        Long userId = userService.getUserByUsername(authentication.getName()).getId();
-        CartResponse cart = cartService.updateCartItem(userId, cartItemId, quantity);
+                                                       @CurrentUserId Long userId) {
+        CartSummaryResponse cart = cartService.updateCartItem(userId, cartItemId, quantity);
         return ResponseEntity.ok(new ApiResponse(true, "Cart item updated successfully", cart));
     }
 
     @DeleteMapping("/items/{cartItemId}")
     public ResponseEntity<ApiResponse> removeCartItem(@PathVariable Long cartItemId,
-                                                       Authentication authentication) {
-        Long userId = userService.getUserByUsername(authentication.getName()).getId();
-        CartResponse cart = cartService.removeCartItem(userId, cartItemId);
+                                                       @CurrentUserId Long userId) {
+        CartSummaryResponse cart = cartService.removeCartItem(userId, cartItemId);
         return ResponseEntity.ok(new ApiResponse(true, "Item removed from cart successfully", cart));
     }
 
     @DeleteMapping
-    public ResponseEntity<ApiResponse> clearCart(Authentication authentication) {
-        Long userId = userService.getUserByUsername(authentication.getName()).getId();
+    public ResponseEntity<ApiResponse> clearCart(@CurrentUserId Long userId) {
         cartService.clearCart(userId);
         return ResponseEntity.ok(new ApiResponse(true, "Cart cleared successfully", null));
     }
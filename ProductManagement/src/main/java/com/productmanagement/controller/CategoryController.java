@@ -4,13 +4,16 @@ import com.productmanagement.dto.ApiResponse;
 import com.productmanagement.dto.CategoryRequest;
 import com.productmanagement.dto.CategoryResponse;
 import com.productmanagement.service.CategoryService;
+import com.productmanagement.service.ETags;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/categories")
@@ -23,14 +26,23 @@ public class CategoryController {
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse> getAllCategories() {
+    public ResponseEntity<ApiResponse> getAllCategories(WebRequest webRequest) {
         List<CategoryResponse> categories = categoryService.getAllCategories();
+        List<String> etags = categories.stream()
+                .map(category -> category.getId() + ":" + category.getEtag())
+                .collect(Collectors.toList());
+        if (webRequest.checkNotModified(ETags.aggregate(etags))) {
+            return null;
+        }
         return ResponseEntity.ok(new ApiResponse(true, "Categories retrieved successfully", categories));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse> getCategoryById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse> getCategoryById(@PathVariable Long id, WebRequest webRequest) {
         CategoryResponse category = categoryService.getCategoryById(id);
+        if (webRequest.checkNotModified(category.getEtag())) {
+            return null;
+        }
         return ResponseEntity.ok(new ApiResponse(true, "Category retrieved successfully", category));
     }
 
@@ -2,61 +2,106 @@ package com.productmanagement.controller;
 
 import com.productmanagement.dto.ApiResponse;
 import com.productmanagement.dto.CheckoutRequest;
+import com.productmanagement.dto.CursorPageResponse;
 import com.productmanagement.dto.OrderResponse;
+import com.productmanagement.entity.Order;
+import com.productmanagement.security.CurrentUserId;
+import com.productmanagement.service.AsyncCheckoutProcessor;
+import com.productmanagement.service.CheckoutIdempotencyService;
 import com.productmanagement.service.OrderService;
-import com.productmanagement.service.UserService;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
-import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.net.URI;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/orders")
 public class OrderController {
 
     private final OrderService orderService;
-    private final UserService userService;
+    private final CheckoutIdempotencyService idempotencyService;
+    private final AsyncCheckoutProcessor asyncCheckoutProcessor;
 
-    public OrderController(OrderService orderService, UserService userService) {
+    public OrderController(OrderService orderService, CheckoutIdempotencyService idempotencyService,
+                           AsyncCheckoutProcessor asyncCheckoutProcessor) {
         this.orderService = orderService;
-        this.userService = userService;
+        this.idempotencyService = idempotencyService;
+        this.asyncCheckoutProcessor = asyncCheckoutProcessor;
     }
 
+    // A retry with the same Idempotency-Key gets the order the first attempt placed
     @PostMapping("/checkout")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<ApiResponse> placeOrder(@Valid @RequestBody CheckoutRequest request,
-                                                   Authentication authentication) {
-        Long userId = userService.getUserByUsername(authentication.getName()).getId();
-        OrderResponse order = orderService.placeOrder(userId, request.getAddressId());
+                                                   @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+                                                   @CurrentUserId Long userId) {
+        OrderResponse order = idempotencyKey != null
+                ? idempotencyService.placeOrder(userId, request.getAddressId(), idempotencyKey)
+                : orderService.placeOrder(userId, request.getAddressId());
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(new ApiResponse(true, "Order placed successfully", order));
     }
 
+    // Answers once the order is recorded as PENDING; poll the Location until it is CONFIRMED or CANCELLED
+    @PostMapping("/checkout:async")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<ApiResponse> placeOrderAsync(@Valid @RequestBody CheckoutRequest request,
+                                                        @CurrentUserId Long userId) {
+        OrderResponse order = asyncCheckoutProcessor.submit(userId, request.getAddressId());
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/orders/" + order.getId()))
+                .body(new ApiResponse(true, "Order accepted for processing", order));
+    }
+
     @GetMapping
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<ApiResponse> getUserOrders(Authentication authentication) {
-        Long userId = userService.getUserByUsername(authentication.getName()).getId();
-        List<OrderResponse> orders = orderService.getUserOrders(userId);
+    public ResponseEntity<ApiResponse> getUserOrders(
+            @CurrentUserId Long userId,
+            @RequestParam(required = false) Order.OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPageResponse<OrderResponse> orders = orderService.getUserOrders(userId, status, from, to, cursor, size);
         return ResponseEntity.ok(new ApiResponse(true, "Orders retrieved successfully", orders));
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<ApiResponse> getOrderById(@PathVariable Long id,
-                                                     Authentication authentication) {
-        Long userId = userService.getUserByUsername(authentication.getName()).getId();
+                                                     @CurrentUserId Long userId) {
         OrderResponse order = orderService.getOrderById(id, userId);
         return ResponseEntity.ok(new ApiResponse(true, "Order retrieved successfully", order));
     }
 
     @GetMapping("/all")
     @PreAuthorize("hasRole('SUPER_ADMIN')")
-    public ResponseEntity<ApiResponse> getAllOrders() {
-        List<OrderResponse> orders = orderService.getAllOrders();
+    public ResponseEntity<ApiResponse> getAllOrders(
+            @RequestParam(required = false) Order.OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        CursorPageResponse<OrderResponse> orders = orderService.getAllOrders(status, from, to, cursor, size);
         return ResponseEntity.ok(new ApiResponse(true, "All orders retrieved successfully", orders));
     }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    @PreAuthorize("hasRole('SUPER_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            @RequestParam(required = false) Order.OrderStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        StreamingResponseBody body = outputStream -> orderService.exportOrders(status, from, to, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
 }
@@ -1,43 +1,88 @@
 package com.productmanagement.controller;
 
 import com.productmanagement.dto.ApiResponse;
+import com.productmanagement.dto.CatalogFormat;
+import com.productmanagement.dto.CursorPageResponse;
+import com.productmanagement.dto.ProductImportResponse;
 import com.productmanagement.dto.ProductRequest;
 import com.productmanagement.dto.ProductResponse;
+import com.productmanagement.dto.ProductSort;
 import com.productmanagement.dto.UpdateProductRequest;
+import com.productmanagement.service.ProductImportService;
 import com.productmanagement.service.ProductService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
 
 @RestController
 @RequestMapping("/api/products")
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductImportService productImportService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService, ProductImportService productImportService) {
         this.productService = productService;
+        this.productImportService = productImportService;
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse> getAllProducts() {
-        List<ProductResponse> products = productService.getAllProducts();
+    public ResponseEntity<ApiResponse> getAllProducts(@RequestParam(required = false) String cursor,
+                                                      @RequestParam(required = false) Integer size,
+                                                      @RequestParam(defaultValue = "id") String sort,
+                                                      WebRequest webRequest) {
+        ProductSort productSort = ProductSort.fromParam(sort);
+        // The list ETag is decided before any page is read or built
+        String etag = productService.getProductListEtag(null);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        CursorPageResponse<ProductResponse> products = productService.getAllProducts(cursor, size, productSort, etag);
         return ResponseEntity.ok(new ApiResponse(true, "Products retrieved successfully", products));
     }
 
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<ApiResponse> getProductsByCategory(@PathVariable Long categoryId) {
-        List<ProductResponse> products = productService.getProductsByCategory(categoryId);
+    public ResponseEntity<ApiResponse> getProductsByCategory(@PathVariable Long categoryId,
+                                                             @RequestParam(required = false) String cursor,
+                                                             @RequestParam(required = false) Integer size,
+                                                             @RequestParam(defaultValue = "id") String sort,
+                                                             WebRequest webRequest) {
+        ProductSort productSort = ProductSort.fromParam(sort);
+        String etag = productService.getProductListEtag(categoryId);
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        CursorPageResponse<ProductResponse> products =
+                productService.getProductsByCategory(categoryId, cursor, size, productSort, etag);
         return ResponseEntity.ok(new ApiResponse(true, "Products retrieved successfully", products));
     }
 
+    @GetMapping(value = "/export", produces = {"application/x-ndjson", "text/csv"})
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportProducts(@RequestParam(defaultValue = "ndjson") String format) {
+        CatalogFormat catalogFormat = CatalogFormat.fromParam(format);
+        StreamingResponseBody body = outputStream -> productService.exportProducts(catalogFormat, outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(catalogFormat == CatalogFormat.CSV
+                        ? "text/csv;charset=UTF-8" : "application/x-ndjson"))
+                .body(body);
+    }
+
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse> getProductById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse> getProductById(@PathVariable Long id, WebRequest webRequest) {
+        // Served from the product cache, so a matching If-None-Match costs no query and no body
         ProductResponse product = productService.getProductById(id);
+        if (webRequest.checkNotModified(product.getEtag())) {
+            return null;
+        }
         return ResponseEntity.ok(new ApiResponse(true, "Product retrieved successfully", product));
     }
 
@@ -46,15 +91,28 @@ public class ProductController {
     public ResponseEntity<ApiResponse> createProduct(@Valid @RequestBody ProductRequest request) {
         ProductResponse product = productService.createProduct(request);
         return ResponseEntity.status(HttpStatus.CREATED)
+                .eTag(product.getEtag())
                 .body(new ApiResponse(true, "Product created successfully", product));
     }
 
+    // Body is the raw CSV (header row required) or NDJSON upload, read as it arrives
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
+    public ResponseEntity<ApiResponse> importProducts(@RequestParam(defaultValue = "csv") String format,
+                                                      InputStream body) throws IOException {
+        ProductImportResponse report = productImportService.importProducts(CatalogFormat.fromParam(format), body);
+        return ResponseEntity.ok(new ApiResponse(true, "Imported " + report.getImported() + " products, "
+                + report.getFailed() + " rows failed", report));
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('SUPER_ADMIN')")
     public ResponseEntity<ApiResponse> updateProduct(@PathVariable Long id,
                                                      @Valid @RequestBody UpdateProductRequest request) {
         ProductResponse product = productService.updateProduct(id, request);
-        return ResponseEntity.ok(new ApiResponse(true, "Product updated successfully", product));
+        return ResponseEntity.ok()
+                .eTag(product.getEtag())
+                .body(new ApiResponse(true, "Product updated successfully", product));
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,18 @@
+package com.productmanagement.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class CartBatchItem {
+    @NotNull(message = "Operation is required")
+    private CartOperation op;
+
+    @NotNull(message = "Product ID is required")
+    private Long productId;
+
+    // Required for ADD and SET, ignored for REMOVE
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity;
+}
@@ -0,0 +1,13 @@
+package com.productmanagement.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CartBatchRequest {
+    @NotEmpty(message = "At least one operation is required")
+    private List<@Valid CartBatchItem> operations;
+}
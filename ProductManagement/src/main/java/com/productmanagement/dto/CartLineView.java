@@ -0,0 +1,20 @@
+package com.productmanagement.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartLineView {
+    private Long cartItemId;
+    private Long productId;
+    private String productName;
+    private BigDecimal price;
+    private boolean enabled;
+    private Integer quantity;
+    private Integer availableQuantity;
+}
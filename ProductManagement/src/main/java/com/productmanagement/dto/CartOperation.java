@@ -0,0 +1,10 @@
+package com.productmanagement.dto;
+
+public enum CartOperation {
+    // Adds to the quantity already in the cart
+    ADD,
+    // Replaces the cart quantity
+    SET,
+    // Drops the line; a product that is not in the cart is left alone
+    REMOVE
+}
@@ -9,6 +9,7 @@ import java.util.List;
 public class CartResponse {
     private Long cartId;
     private List<CartItemResponse> items;
+    private Integer itemCount;
     private BigDecimal totalAmount;
 }
 
@@ -0,0 +1,15 @@
+package com.productmanagement.dto;
+
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class CartSummaryResponse {
+    private Long cartId;
+    private Integer itemCount;
+    private BigDecimal totalAmount;
+    private Long version;
+    // The line the mutation changed; a removed line comes back with quantity 0
+    private CartItemResponse item;
+}
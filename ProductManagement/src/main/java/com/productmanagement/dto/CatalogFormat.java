@@ -0,0 +1,17 @@
+package com.productmanagement.dto;
+
+public enum CatalogFormat {
+    CSV, NDJSON;
+
+    public static CatalogFormat fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return CSV;
+        }
+        for (CatalogFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value.trim())) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Invalid format: " + value + ". Supported values: csv, ndjson");
+    }
+}
@@ -1,5 +1,6 @@
 package com.productmanagement.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 @Data
@@ -7,5 +8,7 @@ public class CategoryResponse {
     private Long id;
     private String name;
     private String description;
+    @JsonIgnore
+    private String etag;
 }
 
@@ -0,0 +1,14 @@
+package com.productmanagement.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CursorPageResponse<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+    private int size;
+    private String sort;
+}
@@ -0,0 +1,24 @@
+package com.productmanagement.dto;
+
+import com.productmanagement.entity.Order;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+public class OrderExportRow {
+    private OrderView order;
+    private OrderItemView item;
+
+    public OrderExportRow(Long id, Long userId, String username, Long addressId, String street, String city,
+                          String state, String zipCode, String country, BigDecimal totalAmount,
+                          Order.OrderStatus status, LocalDateTime orderDate, Long itemId, Long productId,
+                          String productName, Integer quantity, BigDecimal price) {
+        this.order = new OrderView(id, userId, username, addressId, street, city, state, zipCode, country,
+                totalAmount, status, orderDate);
+        this.item = itemId != null ? new OrderItemView(id, itemId, productId, productName, quantity, price) : null;
+    }
+}
@@ -0,0 +1,27 @@
+package com.productmanagement.dto;
+
+import com.productmanagement.entity.Order;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderView {
+    private Long id;
+    private Long userId;
+    private String username;
+    private Long addressId;
+    private String street;
+    private String city;
+    private String state;
+    private String zipCode;
+    private String country;
+    private BigDecimal totalAmount;
+    private Order.OrderStatus status;
+    private LocalDateTime orderDate;
+}
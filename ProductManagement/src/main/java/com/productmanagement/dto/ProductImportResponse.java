@@ -0,0 +1,14 @@
+package com.productmanagement.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ProductImportResponse {
+    private int imported;
+    private int failed;
+    // Capped at app.products.import-max-errors; failed keeps counting past the cap
+    private List<ImportRowError> errors = new ArrayList<>();
+}
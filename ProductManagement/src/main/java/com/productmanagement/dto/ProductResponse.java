@@ -1,5 +1,6 @@
 package com.productmanagement.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 import java.math.BigDecimal;
@@ -14,5 +15,7 @@ public class ProductResponse {
     private Long categoryId;
     private String categoryName;
     private Integer inventoryQuantity;
+    @JsonIgnore
+    private String etag;
 }
 
@@ -0,0 +1,17 @@
+package com.productmanagement.dto;
+
+public enum ProductSort {
+    ID, NAME;
+
+    public static ProductSort fromParam(String value) {
+        if (value == null || value.isBlank()) {
+            return ID;
+        }
+        for (ProductSort sort : values()) {
+            if (sort.name().equalsIgnoreCase(value.trim())) {
+                return sort;
+            }
+        }
+        throw new IllegalArgumentException("Invalid sort: " + value + ". Supported values: id, name");
+    }
+}
@@ -0,0 +1,28 @@
+package com.productmanagement.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductView {
+    private Long id;
+    private String name;
+    private String description;
+    private BigDecimal price;
+    private boolean enabled;
+    private Long categoryId;
+    private String categoryName;
+    private Integer inventoryQuantity;
+    @JsonIgnore
+    private Long version;
+    @JsonIgnore
+    private Long inventoryVersion;
+    @JsonIgnore
+    private Long categoryVersion;
+}
@@ -0,0 +1,14 @@
+package com.productmanagement.dto;
+
+import lombok.Data;
+
+@Data
+public class SecondLevelCacheStatsResponse {
+    private String region;
+    private long elementCount;
+    // Null unless hibernate.generate_statistics is on; Hibernate does not count them otherwise
+    private Long hitCount;
+    private Long missCount;
+    private Long putCount;
+    private Double hitRate;
+}
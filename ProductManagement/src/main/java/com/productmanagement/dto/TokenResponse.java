@@ -0,0 +1,10 @@
+package com.productmanagement.dto;
+
+import lombok.Data;
+
+@Data
+public class TokenResponse {
+    private String token;
+    private String tokenType;
+    private long expiresIn;
+}
@@ -1,12 +1,14 @@
 package com.productmanagement.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.ToString;
 
+import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -17,15 +19,32 @@ import java.util.Set;
 @AllArgsConstructor
 public class Cart {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_seq")
+    @SequenceGenerator(name = "cart_seq", sequenceName = "cart_seq", allocationSize = 50)
     private Long id;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false, unique = true)
     @EqualsAndHashCode.Exclude
     @ToString.Exclude
     private User user;
 
+    // Bumped whenever the cart or its items change; responses derive their ETag from it
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
+    // Running totals kept up to date by every cart mutation, so neither the summary nor the
+    // mutation responses have to re-read the lines. itemCount is the number of units
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Integer itemCount = 0;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    @ColumnDefault("0")
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+
     @OneToMany(mappedBy = "cart", cascade = CascadeType.ALL, orphanRemoval = true)
     @EqualsAndHashCode.Exclude
     @ToString.Exclude
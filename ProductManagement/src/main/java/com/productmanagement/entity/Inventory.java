@@ -1,25 +1,52 @@
 package com.productmanagement.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 @Entity
 @Table(name = "inventory")
+// Entity updates write only the changed columns, so an admin stock change cannot overwrite
+// reserved or soldTotal moved by a concurrent bulk update
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Inventory {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "inventory_seq")
+    @SequenceGenerator(name = "inventory_seq", sequenceName = "inventory_seq", allocationSize = 50)
     private Long id;
 
-    @OneToOne
+    @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "product_id", nullable = false, unique = true)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Product product;
 
     @Column(nullable = false)
     private Integer quantity = 0;
+
+    // Sum of the active cart reservations for this product; available-to-promise is quantity - reserved
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Integer reserved = 0;
+
+    // Units sold out of this row over its lifetime; compared with order_items on startup to recover
+    // hot-SKU sales whose write-behind flush never reached the database. Nullable without a default,
+    // so rows that predate the column are told apart and backfilled from order_items on startup
+    private Long soldTotal = 0L;
+
+    // Bumped when quantity changes, including the guarded bulk updates (UPDATE VERSIONED);
+    // reservation changes leave it alone because they do not show in any response
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
 }
 
@@ -3,7 +3,9 @@ package com.productmanagement.entity;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -11,21 +13,34 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "orders")
+@NamedEntityGraph(name = "Order.detail", attributeNodes = {
+        @NamedAttributeNode("user"),
+        @NamedAttributeNode("address"),
+        @NamedAttributeNode(value = "orderItems", subgraph = "orderItems.product")
+}, subgraphs = @NamedSubgraph(name = "orderItems.product", attributeNodes = @NamedAttributeNode("product")))
+@Table(name = "orders", indexes = {
+        @Index(name = "idx_orders_user_date_id", columnList = "user_id, order_date, id"),
+        @Index(name = "idx_orders_date_id", columnList = "order_date, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Order {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private User user;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "address_id", nullable = false)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Address address;
 
     @Column(nullable = false, precision = 10, scale = 2)
@@ -39,6 +54,9 @@ public class Order {
     private LocalDateTime orderDate = LocalDateTime.now();
 
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL)
+    @OrderBy("id")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Set<OrderItem> orderItems = new HashSet<>();
 
     public enum OrderStatus {
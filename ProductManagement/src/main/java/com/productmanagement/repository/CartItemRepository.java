@@ -1,7 +1,12 @@
 package com.productmanagement.repository;
 
+import com.productmanagement.dto.CartLineView;
 import com.productmanagement.entity.CartItem;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,8 +14,23 @@ import java.util.Optional;
 
 @Repository
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
+    @EntityGraph("CartItem.product")
     List<CartItem> findByCartId(Long cartId);
+
     Optional<CartItem> findByCartIdAndProductId(Long cartId, Long productId);
-    void deleteByCartId(Long cartId);
-}
 
+    @EntityGraph("CartItem.product")
+    Optional<CartItem> findWithProductById(Long id);
+
+    // Available quantity is what is free to promise plus what this user already holds
+    @Query("SELECT new com.productmanagement.dto.CartLineView(ci.id, p.id, p.name, p.price, p.enabled, "
+            + "ci.quantity, i.quantity - i.reserved + COALESCE(r.quantity, 0)) "
+            + "FROM CartItem ci JOIN ci.cart c JOIN ci.product p LEFT JOIN p.inventory i "
+            + "LEFT JOIN InventoryReservation r ON r.user.id = c.user.id AND r.product.id = p.id "
+            + "WHERE c.user.id = :userId ORDER BY p.id")
+    List<CartLineView> findLineViewsByUserId(@Param("userId") Long userId);
+
+    @Modifying
+    @Query("DELETE FROM CartItem ci WHERE ci.cart.id IN (SELECT c.id FROM Cart c WHERE c.user.id = :userId)")
+    int deleteAllByUserId(@Param("userId") Long userId);
+}
@@ -1,7 +1,12 @@
 package com.productmanagement.repository;
 
 import com.productmanagement.entity.Cart;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,5 +14,22 @@ import java.util.Optional;
 @Repository
 public interface CartRepository extends JpaRepository<Cart, Long> {
     Optional<Cart> findByUserId(Long userId);
+
+    // Cart lines show product name and price, so the product versions are part of the validator
+    @Query("SELECT CONCAT(str(c.version), '.', str(COALESCE(SUM(p.version), 0))) "
+            + "FROM Cart c LEFT JOIN c.cartItems ci LEFT JOIN ci.product p "
+            + "WHERE c.user.id = :userId GROUP BY c.id, c.version")
+    Optional<String> findEtagByUserId(@Param("userId") Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Cart c WHERE c.user.id = :userId")
+    Optional<Cart> lockByUserId(@Param("userId") Long userId);
+
+    // Re-prices every cart holding the product after its price changed
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE VERSIONED Cart c SET c.totalAmount = "
+            + "(SELECT COALESCE(SUM(ci.quantity * p.price), 0) FROM CartItem ci JOIN ci.product p WHERE ci.cart = c) "
+            + "WHERE c.id IN (SELECT ci.cart.id FROM CartItem ci WHERE ci.product.id = :productId)")
+    int recalculateTotalsForProduct(@Param("productId") Long productId);
 }
 
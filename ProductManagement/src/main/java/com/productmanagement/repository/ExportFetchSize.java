@@ -0,0 +1,23 @@
+package com.productmanagement.repository;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.MySQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+// Connector/J reads a whole result set into memory unless the fetch size is Integer.MIN_VALUE, which
+// makes it stream row by row. Other drivers reject that value and stream with a positive fetch size.
+// Only the export queries use it, so every other statement keeps the driver's defaults
+final class ExportFetchSize {
+
+    private static final int DEFAULT_FETCH_SIZE = 500;
+
+    private ExportFetchSize() {
+    }
+
+    static int of(EntityManager entityManager) {
+        Dialect dialect = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect();
+        return dialect instanceof MySQLDialect ? Integer.MIN_VALUE : DEFAULT_FETCH_SIZE;
+    }
+}
@@ -0,0 +1,24 @@
+package com.productmanagement.repository;
+
+import com.productmanagement.entity.IdempotencyKey;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, Long> {
+
+    // Read-write so it runs on the primary: the row was usually committed moments ago by another request
+    @Transactional
+    Optional<IdempotencyKey> findByUserIdAndIdempotencyKey(Long userId, String idempotencyKey);
+
+    @Query("SELECT k.id FROM IdempotencyKey k WHERE k.createdAt < :cutoff ORDER BY k.id")
+    List<Long> findIdsCreatedBefore(@Param("cutoff") LocalDateTime cutoff, Limit limit);
+}
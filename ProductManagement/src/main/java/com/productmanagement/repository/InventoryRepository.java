@@ -2,12 +2,69 @@ package com.productmanagement.repository;
 
 import com.productmanagement.entity.Inventory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface InventoryRepository extends JpaRepository<Inventory, Long> {
+public interface InventoryRepository extends JpaRepository<Inventory, Long>, InventoryRepositoryCustom {
     Optional<Inventory> findByProductId(Long productId);
-}
 
+    List<Inventory> findByProductIdIn(Collection<Long> productIds);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Inventory i SET i.reserved = i.reserved + :quantity "
+            + "WHERE i.product.id = :productId AND i.quantity - i.reserved >= :quantity")
+    int reserveQuantity(@Param("productId") Long productId, @Param("quantity") Integer quantity);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Inventory i SET i.reserved = i.reserved - :quantity WHERE i.product.id = :productId")
+    int releaseQuantity(@Param("productId") Long productId, @Param("quantity") Integer quantity);
+
+    // Write-behind flush of hot-SKU sales already guarded in memory
+    @Modifying
+    @Transactional
+    @Query("UPDATE VERSIONED Inventory i SET i.quantity = i.quantity - :sold, i.soldTotal = i.soldTotal + :sold "
+            + "WHERE i.product.id = :productId")
+    int applySold(@Param("productId") Long productId, @Param("sold") long sold);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE VERSIONED Inventory i SET i.quantity = i.quantity + :delta WHERE i.product.id = :productId")
+    int adjustQuantity(@Param("productId") Long productId, @Param("delta") int delta);
+
+    // Absolute stock level set by an admin; refused while reservations exceed it
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE VERSIONED Inventory i SET i.quantity = :quantity "
+            + "WHERE i.product.id = :productId AND i.reserved <= :quantity")
+    int setQuantity(@Param("productId") Long productId, @Param("quantity") int quantity);
+
+    // Charges the row with order lines it has not been charged for yet. quantity is assigned before
+    // soldTotal so it still sees the old total on databases that apply SET clauses in order. Pending
+    // and cancelled orders have taken no stock
+    String SOLD_STATUSES = "AND oi.order.status NOT IN (com.productmanagement.entity.Order.OrderStatus.PENDING, "
+            + "com.productmanagement.entity.Order.OrderStatus.CANCELLED))";
+    String SOLD_UNITS = "(SELECT COALESCE(SUM(oi.quantity), 0) FROM OrderItem oi WHERE oi.product.id = :productId "
+            + SOLD_STATUSES;
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE VERSIONED Inventory i SET "
+            + "i.quantity = i.quantity + i.soldTotal - " + SOLD_UNITS + ", "
+            + "i.soldTotal = " + SOLD_UNITS + " "
+            + "WHERE i.product.id = :productId")
+    int reconcileSold(@Param("productId") Long productId);
+
+    // Rows from before soldTotal existed have it NULL, while order_items already holds every sale they
+    // made. They start from those sales, so reconcileSold never charges a past sale to the stock again
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("UPDATE Inventory i SET i.soldTotal = (SELECT COALESCE(SUM(oi.quantity), 0) FROM OrderItem oi "
+            + "WHERE oi.product.id = i.product.id " + SOLD_STATUSES + " WHERE i.soldTotal IS NULL")
+    int backfillSoldTotal();
+}
@@ -0,0 +1,11 @@
+package com.productmanagement.repository;
+
+import java.util.Map;
+
+public interface InventoryRepositoryCustom {
+    int decrementQuantities(Map<Long, Integer> quantitiesByProductId, Map<Long, Integer> heldByProductId);
+
+    int releaseQuantities(Map<Long, Integer> quantitiesByProductId);
+
+    int adjustReserved(Map<Long, Integer> deltasByProductId);
+}
@@ -0,0 +1,94 @@
+package com.productmanagement.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class InventoryRepositoryCustomImpl implements InventoryRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int decrementQuantities(Map<Long, Integer> quantitiesByProductId, Map<Long, Integer> heldByProductId) {
+        if (quantitiesByProductId.isEmpty()) {
+            return 0;
+        }
+
+        // One guarded UPDATE for all products: each row is decremented by its own amount and its
+        // reservation is converted into the sale. A row only changes when the unheld part still fits
+        // into the unreserved stock, so the affected-row count tells whether every line fit
+        List<Long> productIds = new ArrayList<>(quantitiesByProductId.keySet());
+        String amount = caseByProduct("q", productIds.size());
+        String held = caseByProduct("h", productIds.size());
+
+        entityManager.flush();
+        Query query = entityManager.createQuery("UPDATE VERSIONED Inventory i SET i.quantity = i.quantity - " + amount
+                + ", i.soldTotal = i.soldTotal + " + amount
+                + ", i.reserved = i.reserved - " + held
+                + " WHERE i.product.id IN :productIds AND i.quantity - i.reserved + " + held + " >= " + amount);
+        for (int index = 0; index < productIds.size(); index++) {
+            Long productId = productIds.get(index);
+            query.setParameter("p" + index, productId);
+            query.setParameter("q" + index, quantitiesByProductId.get(productId));
+            query.setParameter("h" + index, heldByProductId.getOrDefault(productId, 0));
+        }
+        query.setParameter("productIds", productIds);
+        return query.executeUpdate();
+    }
+
+    @Override
+    public int releaseQuantities(Map<Long, Integer> quantitiesByProductId) {
+        if (quantitiesByProductId.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> productIds = new ArrayList<>(quantitiesByProductId.keySet());
+        entityManager.flush();
+        Query query = entityManager.createQuery("UPDATE Inventory i SET i.reserved = i.reserved - "
+                + caseByProduct("q", productIds.size()) + " WHERE i.product.id IN :productIds");
+        for (int index = 0; index < productIds.size(); index++) {
+            Long productId = productIds.get(index);
+            query.setParameter("p" + index, productId);
+            query.setParameter("q" + index, quantitiesByProductId.get(productId));
+        }
+        query.setParameter("productIds", productIds);
+        return query.executeUpdate();
+    }
+
+    @Override
+    public int adjustReserved(Map<Long, Integer> deltasByProductId) {
+        if (deltasByProductId.isEmpty()) {
+            return 0;
+        }
+
+        // Moves several holds in one statement. A row only takes a larger hold when the extra units
+        // are still free; shrinking holds always apply, even on a row whose stock was cut below its
+        // holds, so a short count means some growing line did not fit
+        List<Long> productIds = new ArrayList<>(deltasByProductId.keySet());
+        String delta = caseByProduct("d", productIds.size());
+        entityManager.flush();
+        Query query = entityManager.createQuery("UPDATE Inventory i SET i.reserved = i.reserved + " + delta
+                + " WHERE i.product.id IN :productIds AND (" + delta + " <= 0 OR i.quantity - i.reserved >= "
+                + delta + ")");
+        for (int index = 0; index < productIds.size(); index++) {
+            Long productId = productIds.get(index);
+            query.setParameter("p" + index, productId);
+            query.setParameter("d" + index, deltasByProductId.get(productId));
+        }
+        query.setParameter("productIds", productIds);
+        return query.executeUpdate();
+    }
+
+    private String caseByProduct(String valueParameter, int size) {
+        StringBuilder expression = new StringBuilder("CASE i.product.id");
+        for (int index = 0; index < size; index++) {
+            expression.append(" WHEN :p").append(index).append(" THEN :").append(valueParameter).append(index);
+        }
+        return expression.append(" END").toString();
+    }
+}
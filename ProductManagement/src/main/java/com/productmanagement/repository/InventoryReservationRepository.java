@@ -0,0 +1,45 @@
+package com.productmanagement.repository;
+
+import com.productmanagement.entity.InventoryReservation;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface InventoryReservationRepository extends JpaRepository<InventoryReservation, Long> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM InventoryReservation r WHERE r.user.id = :userId AND r.product.id = :productId")
+    Optional<InventoryReservation> lockByUserIdAndProductId(@Param("userId") Long userId,
+                                                            @Param("productId") Long productId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM InventoryReservation r WHERE r.user.id = :userId AND r.product.id IN :productIds")
+    List<InventoryReservation> lockByUserIdAndProductIds(@Param("userId") Long userId,
+                                                         @Param("productIds") Collection<Long> productIds);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM InventoryReservation r WHERE r.user.id = :userId")
+    List<InventoryReservation> lockByUserId(@Param("userId") Long userId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM InventoryReservation r WHERE r.product.id = :productId")
+    List<InventoryReservation> lockByProductId(@Param("productId") Long productId);
+
+    // SKIP LOCKED: holds that a checkout is converting right now are left to it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT r FROM InventoryReservation r WHERE r.expiresAt < :now ORDER BY r.id")
+    List<InventoryReservation> lockExpired(@Param("now") LocalDateTime now, Limit limit);
+}
@@ -1,13 +1,18 @@
 package com.productmanagement.repository;
 
+import com.productmanagement.dto.OrderItemView;
 import com.productmanagement.entity.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
-    List<OrderItem> findByOrderId(Long orderId);
+    @Query("SELECT new com.productmanagement.dto.OrderItemView(oi.order.id, oi.id, p.id, p.name, oi.quantity, "
+            + "oi.price) FROM OrderItem oi JOIN oi.product p WHERE oi.order.id IN :orderIds ORDER BY oi.id")
+    List<OrderItemView> findViewsByOrderIdIn(@Param("orderIds") Collection<Long> orderIds);
 }
-
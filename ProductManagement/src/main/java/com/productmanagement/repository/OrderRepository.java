@@ -1,14 +1,52 @@
 package com.productmanagement.repository;
 
+import com.productmanagement.dto.OrderView;
 import com.productmanagement.entity.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface OrderRepository extends JpaRepository<Order, Long> {
-    List<Order> findByUserId(Long userId);
-    List<Order> findAllByOrderByOrderDateDesc();
-}
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
+    String SELECT_VIEW = "SELECT new com.productmanagement.dto.OrderView(o.id, u.id, u.username, a.id, a.street, "
+            + "a.city, a.state, a.zipCode, a.country, o.totalAmount, o.status, o.orderDate) "
+            + "FROM Order o JOIN o.user u JOIN o.address a ";
+    String FILTER = "WHERE (:status IS NULL OR o.status = :status) "
+            + "AND (:from IS NULL OR o.orderDate >= :from) AND (:to IS NULL OR o.orderDate < :to) ";
+    String AFTER_CURSOR = "AND (o.orderDate < :lastDate OR (o.orderDate = :lastDate AND o.id < :lastId)) "
+            + "ORDER BY o.orderDate DESC, o.id DESC";
+
+    @EntityGraph("Order.detail")
+    Optional<Order> findDetailById(Long id);
+
+    @Query("SELECT o.id FROM Order o WHERE o.status = :status ORDER BY o.id")
+    List<Long> findIdsByStatus(@Param("status") Order.OrderStatus status);
 
+    // Guarded transition: only orders still in the expected status change, so the count shows whether
+    // another worker got there first
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Order o SET o.status = :to WHERE o.id IN :ids AND o.status = :from")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("from") Order.OrderStatus from,
+                     @Param("to") Order.OrderStatus to);
+
+    @Query(SELECT_VIEW + FILTER + "AND u.id = :userId " + AFTER_CURSOR)
+    List<OrderView> findPageByUserId(@Param("userId") Long userId, @Param("status") Order.OrderStatus status,
+                                     @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                     @Param("lastDate") LocalDateTime lastDate, @Param("lastId") Long lastId,
+                                     Limit limit);
+
+    @Query(SELECT_VIEW + FILTER + AFTER_CURSOR)
+    List<OrderView> findPage(@Param("status") Order.OrderStatus status,
+                             @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                             @Param("lastDate") LocalDateTime lastDate, @Param("lastId") Long lastId,
+                             Limit limit);
+}
@@ -0,0 +1,11 @@
+package com.productmanagement.repository;
+
+import com.productmanagement.dto.OrderExportRow;
+import com.productmanagement.entity.Order;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+public interface OrderRepositoryCustom {
+    Stream<OrderExportRow> streamForExport(Order.OrderStatus status, LocalDateTime from, LocalDateTime to);
+}
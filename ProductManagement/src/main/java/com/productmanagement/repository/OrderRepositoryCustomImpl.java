@@ -0,0 +1,32 @@
+package com.productmanagement.repository;
+
+import com.productmanagement.dto.OrderExportRow;
+import com.productmanagement.entity.Order;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+public class OrderRepositoryCustomImpl implements OrderRepositoryCustom {
+
+    private static final String SELECT_EXPORT = "SELECT new com.productmanagement.dto.OrderExportRow(o.id, u.id, "
+            + "u.username, a.id, a.street, a.city, a.state, a.zipCode, a.country, o.totalAmount, o.status, "
+            + "o.orderDate, oi.id, p.id, p.name, oi.quantity, oi.price) "
+            + "FROM Order o JOIN o.user u JOIN o.address a LEFT JOIN o.orderItems oi LEFT JOIN oi.product p ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<OrderExportRow> streamForExport(Order.OrderStatus status, LocalDateTime from, LocalDateTime to) {
+        return entityManager.createQuery(SELECT_EXPORT + OrderRepository.FILTER + "ORDER BY o.id, oi.id",
+                        OrderExportRow.class)
+                .setParameter("status", status)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, ExportFetchSize.of(entityManager))
+                .getResultStream();
+    }
+}
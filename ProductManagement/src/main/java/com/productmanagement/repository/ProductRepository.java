@@ -1,16 +1,59 @@
 package com.productmanagement.repository;
 
+import com.productmanagement.dto.ProductView;
 import com.productmanagement.entity.Product;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
-    List<Product> findByCategoryId(Long categoryId);
-    List<Product> findByEnabledTrue();
-    List<Product> findByCategoryIdAndEnabledTrue(Long categoryId);
-}
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
+    String SELECT_VIEW = "SELECT new com.productmanagement.dto.ProductView(p.id, p.name, p.description, p.price, "
+            + "p.enabled, c.id, c.name, i.quantity, p.version, i.version, c.version) "
+            + "FROM Product p LEFT JOIN p.category c LEFT JOIN p.inventory i ";
+
+    // Validator for the product lists. Any product, stock or category change moves one of the version
+    // sums, and a create or delete moves the count or the highest id
+    String SELECT_LIST_ETAG = "SELECT CONCAT(str(COUNT(p)), '.', str(COALESCE(MAX(p.id), 0)), '.', "
+            + "str(COALESCE(SUM(p.version), 0)), '.', str(COALESCE(SUM(i.version), 0)), '.', "
+            + "str(COALESCE(SUM(c.version), 0))) FROM Product p LEFT JOIN p.category c LEFT JOIN p.inventory i ";
+
+    @EntityGraph("Product.category")
+    Optional<Product> findWithCategoryById(Long id);
+
+    @Query(SELECT_VIEW + "WHERE p.id = :id")
+    Optional<ProductView> findViewById(@Param("id") Long id);
+
+    @Query(SELECT_LIST_ETAG)
+    String findListEtag();
 
+    @Query(SELECT_LIST_ETAG + "WHERE c.id = :categoryId")
+    String findListEtagByCategoryId(@Param("categoryId") Long categoryId);
+
+    @Query(SELECT_VIEW + "WHERE p.enabled = true AND p.id > :lastId ORDER BY p.id ASC")
+    List<ProductView> findEnabledAfterId(@Param("lastId") Long lastId, Limit limit);
+
+    @Query(SELECT_VIEW + "WHERE p.enabled = true "
+            + "AND (p.name > :lastName OR (p.name = :lastName AND p.id > :lastId)) "
+            + "ORDER BY p.name ASC, p.id ASC")
+    List<ProductView> findEnabledAfterName(@Param("lastName") String lastName, @Param("lastId") Long lastId,
+                                           Limit limit);
+
+    @Query(SELECT_VIEW + "WHERE c.id = :categoryId AND p.enabled = true "
+            + "AND p.id > :lastId ORDER BY p.id ASC")
+    List<ProductView> findEnabledByCategoryAfterId(@Param("categoryId") Long categoryId,
+                                                   @Param("lastId") Long lastId, Limit limit);
+
+    @Query(SELECT_VIEW + "WHERE c.id = :categoryId AND p.enabled = true "
+            + "AND (p.name > :lastName OR (p.name = :lastName AND p.id > :lastId)) "
+            + "ORDER BY p.name ASC, p.id ASC")
+    List<ProductView> findEnabledByCategoryAfterName(@Param("categoryId") Long categoryId,
+                                                     @Param("lastName") String lastName,
+                                                     @Param("lastId") Long lastId, Limit limit);
+}
@@ -0,0 +1,14 @@
+package com.productmanagement.repository;
+
+import com.productmanagement.dto.ProductView;
+import com.productmanagement.entity.Inventory;
+import com.productmanagement.entity.Product;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface ProductRepositoryCustom {
+    Stream<ProductView> streamForExport();
+
+    void insertAll(List<Product> products, List<Inventory> inventories, int jdbcBatchSize);
+}
@@ -0,0 +1,45 @@
+package com.productmanagement.repository;
+
+import com.productmanagement.dto.ProductView;
+import com.productmanagement.entity.Inventory;
+import com.productmanagement.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.hibernate.StatelessSession;
+import org.hibernate.jpa.HibernateHints;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Forward-only read for the catalog export; DTO rows are not managed, so the persistence
+    // context stays empty however many rows stream past
+    @Override
+    public Stream<ProductView> streamForExport() {
+        return entityManager.createQuery(ProductRepository.SELECT_VIEW + "ORDER BY p.id", ProductView.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, ExportFetchSize.of(entityManager))
+                .getResultStream();
+    }
+
+    @Override
+    public void insertAll(List<Product> products, List<Inventory> inventories, int jdbcBatchSize) {
+        // A stateless session skips the persistence context and its flush-time dirty and cascade
+        // checks, which dominate bulk inserts. It runs on the transaction's own connection, so the
+        // rows commit or roll back with the caller
+        Session session = entityManager.unwrap(Session.class);
+        session.doWork(connection -> {
+            try (StatelessSession statelessSession = session.getSessionFactory().withStatelessOptions()
+                    .connection(connection)
+                    .openStatelessSession()) {
+                statelessSession.setJdbcBatchSize(jdbcBatchSize);
+                statelessSession.insertMultiple(products);
+                statelessSession.insertMultiple(inventories);
+            }
+        });
+    }
+}
@@ -1,14 +1,25 @@
 package com.productmanagement.repository;
 
 import com.productmanagement.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+    @Override
+    @EntityGraph("User.roles")
+    List<User> findAll();
+
+    @EntityGraph("User.roles")
+    Optional<User> findWithRolesById(Long id);
+
+    // Roles come from the second-level cache on first access
     Optional<User> findByUsername(String username);
+
     Optional<User> findByEmail(String email);
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
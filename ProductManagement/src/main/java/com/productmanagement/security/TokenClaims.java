@@ -0,0 +1,17 @@
+package com.productmanagement.security;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenClaims {
+    private Long userId;
+    private String username;
+    private List<String> roles;
+    private long expiresAt;
+}
@@ -0,0 +1,115 @@
+package com.productmanagement.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+@Service
+public class TokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final String HEADER = base64Url("{\"alg\":\"HS256\",\"typ\":\"JWT\"}"
+            .getBytes(StandardCharsets.UTF_8));
+    // Published in this repository, so anyone could sign tokens with them; only the dev profile accepts them
+    private static final Set<String> DEV_SECRETS = Set.of("change-me-dev-only-token-secret-0123456789abcdef");
+
+    private final ObjectMapper objectMapper;
+    private final SecretKeySpec signingKey;
+    private final long ttlSeconds;
+
+    public TokenService(ObjectMapper objectMapper,
+                        @Value("${app.auth.token-secret:}") String secret,
+                        @Value("${app.auth.token-ttl-seconds:900}") long ttlSeconds,
+                        Environment environment) {
+        if (secret.isBlank()) {
+            throw new IllegalStateException("app.auth.token-secret is not set");
+        }
+        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (keyBytes.length < 32) {
+            throw new IllegalStateException("app.auth.token-secret must be at least 32 bytes long");
+        }
+        if (DEV_SECRETS.contains(secret) && !environment.acceptsProfiles(Profiles.of("dev"))) {
+            throw new IllegalStateException("app.auth.token-secret is a published development value; "
+                    + "set a private secret or run with the dev profile");
+        }
+        this.objectMapper = objectMapper;
+        this.signingKey = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public String issueToken(Long userId, String username, Collection<String> roles) {
+        long issuedAt = Instant.now().getEpochSecond();
+        Map<String, Object> payload = Map.of(
+                "sub", username,
+                "uid", userId,
+                "roles", List.copyOf(roles),
+                "iat", issuedAt,
+                "exp", issuedAt + ttlSeconds);
+        String signingInput = HEADER + "." + base64Url(objectMapper.writeValueAsBytes(payload));
+        return signingInput + "." + base64Url(sign(signingInput));
+    }
+
+    public Optional<TokenClaims> parseToken(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length != 3 || !HEADER.equals(parts[0])) {
+            return Optional.empty();
+        }
+
+        try {
+            byte[] signature = Base64.getUrlDecoder().decode(parts[2]);
+            if (!MessageDigest.isEqual(signature, sign(parts[0] + "." + parts[1]))) {
+                return Optional.empty();
+            }
+
+            Map<?, ?> payload = objectMapper.readValue(Base64.getUrlDecoder().decode(parts[1]), Map.class);
+            if (!(payload.get("exp") instanceof Number expiresAt)
+                    || !(payload.get("uid") instanceof Number userId)
+                    || !(payload.get("sub") instanceof String username)
+                    || !(payload.get("roles") instanceof List<?> roles)) {
+                return Optional.empty();
+            }
+            if (expiresAt.longValue() <= Instant.now().getEpochSecond()) {
+                return Optional.empty();
+            }
+
+            return Optional.of(new TokenClaims(userId.longValue(), username,
+                    roles.stream().map(String::valueOf).toList(), expiresAt.longValue()));
+        } catch (IllegalArgumentException | JacksonException e) {
+            return Optional.empty();
+        }
+    }
+
+    private byte[] sign(String signingInput) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(signingKey);
+            return mac.doFinal(signingInput.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to sign token", e);
+        }
+    }
+
+    private static String base64Url(byte[] bytes) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+}
@@ -0,0 +1,265 @@
+package com.productmanagement.service;
+
+import com.productmanagement.dto.OrderItemResponse;
+import com.productmanagement.dto.OrderResponse;
+import com.productmanagement.exception.CheckoutQueueFullException;
+import com.productmanagement.exception.InsufficientInventoryException;
+import com.productmanagement.exception.InvalidOperationException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Asynchronous checkout: requests record a PENDING order and queue it here. The drain pass takes up
+// to batch-size queued orders, splits them into groups that share no product, and runs the groups on
+// the worker pool. Each group takes its stock in one guarded statement, and no two groups in flight
+// ever wait on the same inventory row. When a group does not fit, its orders are retried one by one,
+// so only the orders that no longer fit are cancelled. Any other failure queues the order again after
+// an exponential delay; once max-attempts is used up the order is cancelled, and if even that fails it
+// stays PENDING for an operator, to be picked up again on the next restart
+@Component
+public class AsyncCheckoutProcessor implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(AsyncCheckoutProcessor.class);
+
+    private final OrderService orderService;
+    private final BlockingQueue<PendingCheckout> queue = new LinkedBlockingQueue<>();
+    // Failed orders waiting out their backoff; the drain moves them back to the queue once due
+    private final DelayQueue<DelayedCheckout> retries = new DelayQueue<>();
+    // Bounds the queue; a slot is taken before the order is recorded and freed once it is processed
+    private final Semaphore slots;
+    private final ExecutorService workers;
+
+    @Value("${app.orders.async-checkout.batch-size:100}")
+    private int batchSize;
+
+    @Value("${app.orders.async-checkout.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${app.orders.async-checkout.retry-delay-ms:100}")
+    private long retryDelayMillis;
+
+    @Value("${app.orders.async-checkout.max-retry-delay-ms:30000}")
+    private long maxRetryDelayMillis;
+
+    public AsyncCheckoutProcessor(OrderService orderService,
+                                  @Value("${app.orders.async-checkout.queue-capacity:1000}") int queueCapacity,
+                                  @Value("${app.orders.async-checkout.workers:4}") int workerCount,
+                                  MeterRegistry meterRegistry) {
+        this.orderService = orderService;
+        this.slots = new Semaphore(queueCapacity);
+        this.workers = Executors.newFixedThreadPool(workerCount,
+                Thread.ofPlatform().name("checkout-worker-", 0).factory());
+        Gauge.builder("app.checkout.queued", queue, BlockingQueue::size)
+                .description("Pending orders waiting for a checkout worker")
+                .register(meterRegistry);
+        Gauge.builder("app.checkout.retrying", retries, DelayQueue::size)
+                .description("Pending orders waiting to be retried after a failure")
+                .register(meterRegistry);
+    }
+
+    public OrderResponse submit(Long userId, Long addressId) {
+        if (!slots.tryAcquire()) {
+            throw new CheckoutQueueFullException("Checkout queue is full, please retry");
+        }
+        OrderResponse order;
+        try {
+            order = orderService.placePendingOrder(userId, addressId);
+        } catch (RuntimeException e) {
+            slots.release();
+            throw e;
+        }
+        Map<Long, Integer> quantitiesByProductId = new LinkedHashMap<>();
+        for (OrderItemResponse item : order.getItems()) {
+            quantitiesByProductId.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        queue.add(new PendingCheckout(order.getId(), quantitiesByProductId, true, 0));
+        return order;
+    }
+
+    // PENDING orders survive a restart in the orders table; they are queued again outside the bound
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingOrders() {
+        Map<Long, Map<Long, Integer>> pending = orderService.findPendingOrderQuantities();
+        pending.forEach((orderId, quantities) -> queue.add(new PendingCheckout(orderId, quantities, false, 0)));
+        if (!pending.isEmpty()) {
+            log.info("Resuming {} pending orders", pending.size());
+        }
+    }
+
+    // Waits for the whole batch, so groups from consecutive batches never overlap
+    @Scheduled(fixedDelayString = "${app.orders.async-checkout.drain-interval-ms:10}")
+    public void drain() throws InterruptedException {
+        for (DelayedCheckout due = retries.poll(); due != null; due = retries.poll()) {
+            queue.add(due.checkout());
+        }
+        List<PendingCheckout> batch = new ArrayList<>();
+        queue.drainTo(batch, batchSize);
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Future<?>> running = new ArrayList<>();
+        for (List<PendingCheckout> group : groupByProduct(batch)) {
+            running.add(workers.submit(() -> process(group)));
+        }
+        for (Future<?> future : running) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                log.error("Checkout worker failed", e.getCause());
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        workers.shutdown();
+    }
+
+    private void process(List<PendingCheckout> group) {
+        if (group.size() > 1) {
+            try {
+                confirm(group);
+                group.forEach(this::finished);
+                return;
+            } catch (RuntimeException e) {
+                log.debug("Confirming {} orders together failed, retrying one by one: {}", group.size(),
+                        e.getMessage());
+            }
+        }
+        for (PendingCheckout checkout : group) {
+            try {
+                confirm(List.of(checkout));
+                finished(checkout);
+            } catch (InsufficientInventoryException e) {
+                cancel(checkout, "insufficient inventory");
+            } catch (InvalidOperationException e) {
+                // Already confirmed or cancelled by another instance
+                finished(checkout);
+            } catch (RuntimeException e) {
+                if (checkout.attempts() + 1 < maxAttempts) {
+                    retryLater(checkout, "Confirming", e);
+                } else {
+                    log.error("Confirming order {} failed {} times, cancelling it", checkout.orderId(),
+                            maxAttempts, e);
+                    cancel(checkout, "confirmation kept failing");
+                }
+            }
+        }
+    }
+
+    private void confirm(List<PendingCheckout> group) {
+        List<Long> orderIds = new ArrayList<>();
+        Map<Long, Integer> quantitiesByProductId = new HashMap<>();
+        for (PendingCheckout checkout : group) {
+            orderIds.add(checkout.orderId());
+            checkout.quantitiesByProductId().forEach((productId, quantity) ->
+                    quantitiesByProductId.merge(productId, quantity, Integer::sum));
+        }
+        orderService.confirmPendingOrders(orderIds, quantitiesByProductId);
+    }
+
+    private void cancel(PendingCheckout checkout, String reason) {
+        try {
+            if (orderService.cancelPendingOrder(checkout.orderId(), checkout.quantitiesByProductId())) {
+                log.info("Order {} cancelled: {}", checkout.orderId(), reason);
+            }
+            finished(checkout);
+        } catch (RuntimeException e) {
+            if (checkout.attempts() + 1 < maxAttempts) {
+                retryLater(checkout, "Cancelling", e);
+            } else {
+                // Parked: the order and its reserved units stay as they are until an operator steps in
+                // or a restart queues it again
+                log.error("Cancelling order {} failed {} times, left PENDING", checkout.orderId(), maxAttempts, e);
+                finished(checkout);
+            }
+        }
+    }
+
+    // Keeps the queue slot; the delay doubles with every attempt up to max-retry-delay-ms
+    private void retryLater(PendingCheckout checkout, String action, RuntimeException e) {
+        PendingCheckout retry = checkout.nextAttempt();
+        long delayMillis = Math.min(retryDelayMillis << Math.min(checkout.attempts(), 30), maxRetryDelayMillis);
+        log.warn("{} order {} failed (attempt {} of {}), retrying in {} ms", action, checkout.orderId(),
+                retry.attempts(), maxAttempts, delayMillis, e);
+        retries.add(new DelayedCheckout(retry, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis)));
+    }
+
+    private void finished(PendingCheckout checkout) {
+        if (checkout.holdsSlot()) {
+            slots.release();
+        }
+    }
+
+    // Orders that share a product, directly or through other orders, end up in the same group
+    private static List<List<PendingCheckout>> groupByProduct(List<PendingCheckout> batch) {
+        int[] parent = new int[batch.size()];
+        Map<Long, Integer> firstOrderByProductId = new HashMap<>();
+        for (int index = 0; index < batch.size(); index++) {
+            parent[index] = index;
+            for (Long productId : batch.get(index).quantitiesByProductId().keySet()) {
+                Integer first = firstOrderByProductId.putIfAbsent(productId, index);
+                if (first != null) {
+                    parent[root(parent, index)] = root(parent, first);
+                }
+            }
+        }
+        Map<Integer, List<PendingCheckout>> groups = new LinkedHashMap<>();
+        for (int index = 0; index < batch.size(); index++) {
+            groups.computeIfAbsent(root(parent, index), key -> new ArrayList<>()).add(batch.get(index));
+        }
+        return new ArrayList<>(groups.values());
+    }
+
+    private static int root(int[] parent, int index) {
+        while (parent[index] != index) {
+            parent[index] = parent[parent[index]];
+            index = parent[index];
+        }
+        return index;
+    }
+
+    private record PendingCheckout(Long orderId, Map<Long, Integer> quantitiesByProductId, boolean holdsSlot,
+                                   int attempts) {
+
+        PendingCheckout nextAttempt() {
+            return new PendingCheckout(orderId, quantitiesByProductId, holdsSlot, attempts + 1);
+        }
+    }
+
+    private record DelayedCheckout(PendingCheckout checkout, long dueNanos) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueNanos, ((DelayedCheckout) other).dueNanos);
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.productmanagement.service;
+
+import com.productmanagement.dto.LoginRequest;
+import com.productmanagement.dto.TokenResponse;
+import com.productmanagement.security.AuthenticatedUser;
+import com.productmanagement.security.TokenService;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+
+import java.util.stream.Collectors;
+
+@Service
+public class AuthService {
+
+    private final AuthenticationManager authenticationManager;
+    private final TokenService tokenService;
+
+    public AuthService(AuthenticationManager authenticationManager, TokenService tokenService) {
+        this.authenticationManager = authenticationManager;
+        this.tokenService = tokenService;
+    }
+
+    public TokenResponse login(LoginRequest request) {
+        // The password hash is verified once here; subsequent requests only verify the token signature
+        Authentication authentication = authenticationManager.authenticate(
+                UsernamePasswordAuthenticationToken.unauthenticated(request.getUsername(), request.getPassword()));
+
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
+        String token = tokenService.issueToken(user.getId(), user.getUsername(), user.getAuthorities().stream()
+                .map(authority -> authority.getAuthority().substring("ROLE_".length()))
+                .collect(Collectors.toList()));
+
+        TokenResponse response = new TokenResponse();
+        response.setToken(token);
+        response.setTokenType("Bearer");
+        response.setExpiresIn(tokenService.getTtlSeconds());
+        return response;
+    }
+}
@@ -0,0 +1,86 @@
+package com.productmanagement.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.productmanagement.dto.CacheStatsResponse;
+import com.productmanagement.dto.SecondLevelCacheStatsResponse;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+public class CacheStatsService {
+
+    private final CacheManager cacheManager;
+    private final Statistics hibernateStatistics;
+    private final javax.cache.CacheManager hibernateCacheManager;
+
+    public CacheStatsService(CacheManager cacheManager, EntityManagerFactory entityManagerFactory,
+                             javax.cache.CacheManager hibernateCacheManager) {
+        this.cacheManager = cacheManager;
+        this.hibernateStatistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        this.hibernateCacheManager = hibernateCacheManager;
+    }
+
+    public List<CacheStatsResponse> getCacheStats() {
+        List<CacheStatsResponse> stats = new ArrayList<>();
+        for (String name : cacheManager.getCacheNames()) {
+            Cache cache = cacheManager.getCache(name);
+            if (cache instanceof TransactionAwareCacheDecorator decorator) {
+                cache = decorator.getTargetCache();
+            }
+            if (cache != null && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache) {
+                stats.add(convertToResponse(name, nativeCache));
+            }
+        }
+        return stats;
+    }
+
+    public boolean isStatisticsEnabled() {
+        return hibernateStatistics.isStatisticsEnabled();
+    }
+
+    // Hit/miss/put are counted by Hibernate since startup and only while hibernate.generate_statistics
+    // is on; otherwise they are left null rather than reported as zero. JCache exposes no entry count,
+    // so that comes from the Caffeine cache behind each region
+    public List<SecondLevelCacheStatsResponse> getSecondLevelCacheStats() {
+        List<SecondLevelCacheStatsResponse> stats = new ArrayList<>();
+        for (String region : hibernateStatistics.getSecondLevelCacheRegionNames()) {
+            javax.cache.Cache<Object, Object> cache = hibernateCacheManager.getCache(region);
+
+            SecondLevelCacheStatsResponse response = new SecondLevelCacheStatsResponse();
+            response.setRegion(region);
+            response.setElementCount(cache == null ? 0
+                    : cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class).estimatedSize());
+            if (isStatisticsEnabled()) {
+                CacheRegionStatistics regionStatistics = hibernateStatistics.getDomainDataRegionStatistics(region);
+                response.setHitCount(regionStatistics.getHitCount());
+                response.setMissCount(regionStatistics.getMissCount());
+                response.setPutCount(regionStatistics.getPutCount());
+                long requests = regionStatistics.getHitCount() + regionStatistics.getMissCount();
+                response.setHitRate(requests == 0 ? 0.0 : (double) regionStatistics.getHitCount() / requests);
+            }
+            stats.add(response);
+        }
+        return stats;
+    }
+
+    private CacheStatsResponse convertToResponse(String name, com.github.benmanes.caffeine.cache.Cache<?, ?> cache) {
+        CacheStats cacheStats = cache.stats();
+        CacheStatsResponse response = new CacheStatsResponse();
+        response.setName(name);
+        response.setSize(cache.estimatedSize());
+        response.setHitCount(cacheStats.hitCount());
+        response.setMissCount(cacheStats.missCount());
+        response.setHitRate(cacheStats.hitRate());
+        response.setEvictionCount(cacheStats.evictionCount());
+        return response;
+    }
+}
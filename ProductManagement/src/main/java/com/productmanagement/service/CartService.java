@@ -1,8 +1,12 @@
 package com.productmanagement.service;
 
+import com.productmanagement.dto.CartBatchItem;
 import com.productmanagement.dto.CartItemRequest;
+import com.productmanagement.dto.CartLineView;
 import com.productmanagement.dto.CartItemResponse;
 import com.productmanagement.dto.CartResponse;
+import com.productmanagement.dto.CartOperation;
+import com.productmanagement.dto.CartSummaryResponse;
 import com.productmanagement.entity.Cart;
 import com.productmanagement.entity.CartItem;
 import com.productmanagement.entity.Product;
@@ -14,11 +18,17 @@ import com.productmanagement.repository.CartItemRepository;
 import com.productmanagement.repository.CartRepository;
 import com.productmanagement.repository.ProductRepository;
 import com.productmanagement.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,16 +38,21 @@ public class CartService {
     private final CartItemRepository cartItemRepository;
     private final ProductRepository productRepository;
     private final UserRepository userRepository;
-    private final ProductService productService;
+    private final InventoryReservationService reservationService;
+    private final HotSkuInventory hotSkuInventory;
+
+    @Value("${app.cart.batch-max-operations:100}")
+    private int batchMaxOperations;
 
     public CartService(CartRepository cartRepository, CartItemRepository cartItemRepository,
                        ProductRepository productRepository, UserRepository userRepository,
-                       ProductService productService) {
+                       InventoryReservationService reservationService, HotSkuInventory hotSkuInventory) {
         this.cartRepository = cartRepository;
         this.cartItemRepository = cartItemRepository;
         this.productRepository = productRepository;
         this.userRepository = userRepository;
-        this.productService = productService;
+        this.reservationService = reservationService;
+        this.hotSkuInventory = hotSkuInventory;
     }
 
     @Transactional
@@ -53,8 +68,8 @@ public class CartService {
     }
 
     @Transactional
-    public CartResponse addItemToCart(Long userId, CartItemRequest request) {
-        Cart cart = getOrCreateCart(userId);
+    public CartSummaryResponse addItemToCart(Long userId, CartItemRequest request) {
+        Cart cart = lockOrCreateCart(userId);
 
         Product product = productRepository.findById(request.getProductId())
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + request.getProductId()));
@@ -63,82 +78,216 @@ public class CartService {
             throw new InvalidOperationException("Product is disabled");
         }
 
-        // Check inventory
-        Integer availableQuantity = productService.getProductInventory(request.getProductId());
-        if (availableQuantity < request.getQuantity()) {
-            throw new InsufficientInventoryException(
-                    "Insufficient inventory. Available: " + availableQuantity + ", Requested: " + request.getQuantity()
-            );
-        }
-
         // Check if item already exists in cart
-        CartItem existingItem = cartItemRepository.findByCartIdAndProductId(cart.getId(), request.getProductId())
+        CartItem cartItem = cartItemRepository.findByCartIdAndProductId(cart.getId(), request.getProductId())
                 .orElse(null);
 
-        if (existingItem != null) {
-            int newQuantity = existingItem.getQuantity() + request.getQuantity();
-            if (availableQuantity < newQuantity) {
-                throw new InsufficientInventoryException(
-                        "Insufficient inventory. Available: " + availableQuantity + ", Requested: " + newQuantity
-                );
-            }
-            existingItem.setQuantity(newQuantity);
-            cartItemRepository.save(existingItem);
-        } else {
-            CartItem cartItem = new CartItem();
+        // Hold the stock for the whole cart line; fails when it is not available to promise
+        int newQuantity = cartItem != null ? cartItem.getQuantity() + request.getQuantity()
+                : request.getQuantity();
+        holdForCart(userId, request.getProductId(), newQuantity);
+
+        if (cartItem == null) {
+            cartItem = new CartItem();
             cartItem.setCart(cart);
             cartItem.setProduct(product);
-            cartItem.setQuantity(request.getQuantity());
-            cartItemRepository.save(cartItem);
         }
+        cartItem.setQuantity(newQuantity);
+        cartItem = cartItemRepository.save(cartItem);
+        applyDelta(cart, product.getPrice(), request.getQuantity());
 
-        return getCart(userId);
+        return toSummary(cart, convertToResponse(cartItem));
     }
 
     @Transactional
-    public CartResponse updateCartItem(Long userId, Long cartItemId, Integer quantity) {
-        CartItem cartItem = cartItemRepository.findById(cartItemId)
-                .orElseThrow(() -> new ResourceNotFoundException("Cart item not found with id: " + cartItemId));
-
-        if (!cartItem.getCart().getUser().getId().equals(userId)) {
-            throw new InvalidOperationException("Cart item does not belong to user");
-        }
+    public CartSummaryResponse updateCartItem(Long userId, Long cartItemId, Integer quantity) {
+        Cart cart = lockOrCreateCart(userId);
+        CartItem cartItem = findOwnedItem(cart, cartItemId);
 
         if (quantity <= 0) {
             throw new InvalidOperationException("Quantity must be greater than 0");
         }
 
-        // Check inventory
-        Integer availableQuantity = productService.getProductInventory(cartItem.getProduct().getId());
-        if (availableQuantity < quantity) {
-            throw new InsufficientInventoryException(
-                    "Insufficient inventory. Available: " + availableQuantity + ", Requested: " + quantity
-            );
-        }
+        holdForCart(userId, cartItem.getProduct().getId(), quantity);
 
+        int delta = quantity - cartItem.getQuantity();
         cartItem.setQuantity(quantity);
         cartItemRepository.save(cartItem);
+        applyDelta(cart, cartItem.getProduct().getPrice(), delta);
 
-        return getCart(userId);
+        return toSummary(cart, convertToResponse(cartItem));
     }
 
     @Transactional
-    public CartResponse removeCartItem(Long userId, Long cartItemId) {
-        CartItem cartItem = cartItemRepository.findById(cartItemId)
-                .orElseThrow(() -> new ResourceNotFoundException("Cart item not found with id: " + cartItemId));
+    public CartSummaryResponse removeCartItem(Long userId, Long cartItemId) {
+        Cart cart = lockOrCreateCart(userId);
+        CartItem cartItem = findOwnedItem(cart, cartItemId);
+
+        reservationService.release(userId, cartItem.getProduct().getId());
+        cartItemRepository.delete(cartItem);
+        applyDelta(cart, cartItem.getProduct().getPrice(), -cartItem.getQuantity());
+
+        CartItemResponse removed = convertToResponse(cartItem);
+        removed.setQuantity(0);
+        removed.setSubtotal(BigDecimal.ZERO);
+        return toSummary(cart, removed);
+    }
+
+    // Folds the operations into one target quantity per product, then validates and writes all of
+    // them together: products, holds and stock are each read with one IN query, and the cart lines
+    // go out as JDBC batches. Any failing line rolls the whole batch back
+    @Transactional
+    public CartResponse applyBatch(Long userId, List<CartBatchItem> operations) {
+        if (operations.size() > batchMaxOperations) {
+            throw new InvalidOperationException("A batch may contain at most " + batchMaxOperations + " operations");
+        }
+        Cart cart = lockOrCreateCart(userId);
+        Map<Long, CartItem> itemsByProductId = new LinkedHashMap<>();
+        for (CartItem cartItem : cartItemRepository.findByCartId(cart.getId())) {
+            itemsByProductId.put(cartItem.getProduct().getId(), cartItem);
+        }
+
+        Map<Long, Integer> targets = new LinkedHashMap<>();
+        for (CartBatchItem operation : operations) {
+            Long productId = operation.getProductId();
+            if (operation.getOp() != CartOperation.REMOVE && operation.getQuantity() == null) {
+                throw new InvalidOperationException("Quantity is required for " + operation.getOp()
+                        + " of product " + productId);
+            }
+            int current = targets.computeIfAbsent(productId, id -> quantityInCart(itemsByProductId.get(id)));
+            switch (operation.getOp()) {
+                case ADD -> targets.put(productId, current + operation.getQuantity());
+                case SET -> targets.put(productId, operation.getQuantity());
+                case REMOVE -> targets.put(productId, 0);
+            }
+        }
+        // Lines the batch leaves as they were are neither validated nor written
+        targets.entrySet().removeIf(target -> target.getValue() == quantityInCart(itemsByProductId.get(target.getKey())));
+
+        List<Long> requestedIds = targets.entrySet().stream()
+                .filter(target -> target.getValue() > 0)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        Map<Long, Product> productsById = productRepository.findAllById(requestedIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        for (Long productId : requestedIds) {
+            Product product = productsById.get(productId);
+            if (product == null) {
+                throw new ResourceNotFoundException("Product not found with id: " + productId);
+            }
+            if (!product.isEnabled()) {
+                throw new InvalidOperationException("Product '" + product.getName() + "' is disabled");
+            }
+        }
+
+        Map<Long, Integer> holds = new HashMap<>();
+        targets.forEach((productId, quantity) -> {
+            if (hotSkuInventory.isHot(productId)) {
+                if (quantity > 0) {
+                    holdForCart(userId, productId, quantity);
+                }
+            } else {
+                holds.put(productId, quantity);
+            }
+        });
+        reservationService.holdAllForCart(userId, holds);
+
+        List<CartItem> added = new ArrayList<>();
+        List<CartItem> removed = new ArrayList<>();
+        targets.forEach((productId, quantity) -> {
+            CartItem cartItem = itemsByProductId.get(productId);
+            if (cartItem == null) {
+                cartItem = new CartItem();
+                cartItem.setCart(cart);
+                cartItem.setProduct(productsById.get(productId));
+                cartItem.setQuantity(0);
+                added.add(cartItem);
+                itemsByProductId.put(productId, cartItem);
+            }
+            applyDelta(cart, cartItem.getProduct().getPrice(), quantity - cartItem.getQuantity());
+            if (quantity == 0) {
+                removed.add(cartItem);
+                itemsByProductId.remove(productId);
+            } else {
+                cartItem.setQuantity(quantity);
+            }
+        });
+        cartItemRepository.saveAll(added);
+        cartItemRepository.deleteAll(removed);
+
+        CartResponse response = new CartResponse();
+        response.setCartId(cart.getId());
+        response.setItems(itemsByProductId.values().stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList()));
+        response.setItemCount(cart.getItemCount());
+        response.setTotalAmount(cart.getTotalAmount());
+        return response;
+    }
+
+    private int quantityInCart(CartItem cartItem) {
+        return cartItem != null ? cartItem.getQuantity() : 0;
+    }
+
+    // Serializes one user's cart mutations and checkout on the cart row; the totals and version
+    // change in the same transaction as the line, and the version bump comes from the flush
+    private Cart lockOrCreateCart(Long userId) {
+        return cartRepository.lockByUserId(userId).orElseGet(() -> getOrCreateCart(userId));
+    }
 
-        if (!cartItem.getCart().getUser().getId().equals(userId)) {
+    private CartItem findOwnedItem(Cart cart, Long cartItemId) {
+        CartItem cartItem = cartItemRepository.findWithProductById(cartItemId)
+                .orElseThrow(() -> new ResourceNotFoundException("Cart item not found with id: " + cartItemId));
+        if (!cartItem.getCart().getId().equals(cart.getId())) {
             throw new InvalidOperationException("Cart item does not belong to user");
         }
+        return cartItem;
+    }
 
-        cartItemRepository.delete(cartItem);
-        return getCart(userId);
+    private void applyDelta(Cart cart, BigDecimal price, int quantityDelta) {
+        cart.setItemCount(cart.getItemCount() + quantityDelta);
+        cart.setTotalAmount(cart.getTotalAmount().add(price.multiply(BigDecimal.valueOf(quantityDelta))));
+    }
+
+    private CartSummaryResponse toSummary(Cart cart, CartItemResponse item) {
+        // Flush so the response carries the version the ETag will report
+        cartRepository.flush();
+        CartSummaryResponse response = new CartSummaryResponse();
+        response.setCartId(cart.getId());
+        response.setItemCount(cart.getItemCount());
+        response.setTotalAmount(cart.getTotalAmount());
+        response.setVersion(cart.getVersion());
+        response.setItem(item);
+        return response;
+    }
+
+    // Hot SKUs are sold first come, first served at checkout: a hold would put every add-to-cart
+    // back on the inventory row, so they only get an availability check
+    private void holdForCart(Long userId, Long productId, int quantity) {
+        if (!hotSkuInventory.isHot(productId)) {
+            reservationService.holdForCart(userId, productId, quantity);
+            return;
+        }
+        int availableQuantity = hotSkuInventory.available(productId);
+        if (availableQuantity < quantity) {
+            throw new InsufficientInventoryException(
+                    "Insufficient inventory. Available: " + availableQuantity + ", Requested: " + quantity
+            );
+        }
     }
 
     @Transactional
     public void clearCart(Long userId) {
-        Cart cart = getOrCreateCart(userId);
-        cartItemRepository.deleteByCartId(cart.getId());
+        Cart cart = lockOrCreateCart(userId);
+        reservationService.releaseAll(userId);
+        cartItemRepository.deleteAllByUserId(userId);
+        cart.setItemCount(0);
+        cart.setTotalAmount(BigDecimal.ZERO);
+    }
+
+    // Null until the user has a cart; getCart creates it, so there is nothing to compare against yet
+    public String getCartEtag(Long userId) {
+        return cartRepository.findEtagByUserId(userId).orElse(null);
     }
 
     public CartResponse getCart(Long userId) {
@@ -149,44 +298,40 @@ public class CartService {
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
 
-        BigDecimal totalAmount = items.stream()
-                .map(CartItemResponse::getSubtotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
         CartResponse response = new CartResponse();
         response.setCartId(cart.getId());
         response.setItems(items);
-        response.setTotalAmount(totalAmount);
+        response.setItemCount(cart.getItemCount());
+        response.setTotalAmount(cart.getTotalAmount());
 
         return response;
     }
 
-    @Transactional
-    public void validateCart(Long userId) {
-        Cart cart = getOrCreateCart(userId);
-        if (cart.getId() == null) {
-            throw new InvalidOperationException("Cart is empty");
-        }
-        List<CartItem> cartItems = cartItemRepository.findByCartId(cart.getId());
+    public List<CartLineView> validateCart(Long userId) {
+        // Checkout takes the cart lock first, in the same order as cart mutations, so the lines
+        // cannot change between validation and clearing the cart
+        cartRepository.lockByUserId(userId);
+        List<CartLineView> lines = cartItemRepository.findLineViewsByUserId(userId);
 
-        if (cartItems.isEmpty()) {
+        if (lines.isEmpty()) {
             throw new InvalidOperationException("Cart is empty");
         }
 
-        for (CartItem item : cartItems) {
-            Product product = item.getProduct();
-            if (!product.isEnabled()) {
-                throw new InvalidOperationException("Product '" + product.getName() + "' is disabled");
+        for (CartLineView line : lines) {
+            if (!line.isEnabled()) {
+                throw new InvalidOperationException("Product '" + line.getProductName() + "' is disabled");
             }
 
-            Integer availableQuantity = productService.getProductInventory(product.getId());
-            if (availableQuantity < item.getQuantity()) {
+            int availableQuantity = line.getAvailableQuantity() != null ? line.getAvailableQuantity() : 0;
+            if (availableQuantity < line.getQuantity()) {
                 throw new InsufficientInventoryException(
-                        "Insufficient inventory for product '" + product.getName() +
-                                "'. Available: " + availableQuantity + ", Required: " + item.getQuantity()
+                        "Insufficient inventory for product '" + line.getProductName() +
+                                "'. Available: " + availableQuantity + ", Required: " + line.getQuantity()
                 );
             }
         }
+
+        return lines;
     }
 
     private CartItemResponse convertToResponse(CartItem cartItem) {
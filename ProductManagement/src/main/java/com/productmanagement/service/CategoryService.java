@@ -1,11 +1,15 @@
 package com.productmanagement.service;
 
+import com.productmanagement.config.CacheConfig;
 import com.productmanagement.dto.CategoryRequest;
 import com.productmanagement.dto.CategoryResponse;
 import com.productmanagement.entity.Category;
 import com.productmanagement.exception.DuplicateResourceException;
 import com.productmanagement.exception.ResourceNotFoundException;
 import com.productmanagement.repository.CategoryRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -22,6 +26,7 @@ public class CategoryService {
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CATEGORY_LIST, allEntries = true)
     public CategoryResponse createCategory(CategoryRequest request) {
         if (categoryRepository.existsByName(request.getName())) {
             throw new DuplicateResourceException("Category with name '" + request.getName() + "' already exists");
@@ -35,12 +40,16 @@ public class CategoryService {
         return convertToResponse(category);
     }
 
+    @Transactional(readOnly = true)
+    @Cacheable(CacheConfig.CATEGORY_LIST)
     public List<CategoryResponse> getAllCategories() {
         return categoryRepository.findAll().stream()
                 .map(this::convertToResponse)
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    @Cacheable(CacheConfig.CATEGORIES)
     public CategoryResponse getCategoryById(Long id) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
@@ -48,6 +57,13 @@ public class CategoryService {
     }
 
     @Transactional
+    // Product responses embed the category name, so cached products are dropped as well
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CATEGORIES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.CATEGORY_LIST, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.PRODUCTS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.PRODUCT_PAGES, allEntries = true)
+    })
     public CategoryResponse updateCategory(Long id, CategoryRequest request) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
@@ -64,6 +80,12 @@ public class CategoryService {
     }
 
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CATEGORIES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.CATEGORY_LIST, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.PRODUCTS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.PRODUCT_PAGES, allEntries = true)
+    })
     public void deleteCategory(Long id) {
         Category category = categoryRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + id));
@@ -75,6 +97,7 @@ public class CategoryService {
         response.setId(category.getId());
         response.setName(category.getName());
         response.setDescription(category.getDescription());
+        response.setEtag(ETags.of(category.getVersion()));
         return response;
     }
 }
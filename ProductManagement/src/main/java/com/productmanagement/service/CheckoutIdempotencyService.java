@@ -0,0 +1,128 @@
+package com.productmanagement.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.productmanagement.dto.OrderResponse;
+import com.productmanagement.entity.IdempotencyKey;
+import com.productmanagement.exception.DuplicateResourceException;
+import com.productmanagement.exception.InvalidOperationException;
+import com.productmanagement.repository.IdempotencyKeyRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Runs a checkout at most once per (user, Idempotency-Key). A retry of a finished checkout gets the
+// same order back. A retry that arrives while the first attempt is still running on this instance
+// waits for it instead of placing a second order. On another instance, the retry's insert of the
+// key row blocks on the unique key until the first transaction ends
+@Service
+public class CheckoutIdempotencyService {
+
+    private final OrderService orderService;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final Duration ttl;
+    private final long maxWaitMillis;
+    // Completed keys, so a retry is answered without touching the table
+    private final Cache<String, IdempotencyKey> completed;
+    private final ConcurrentMap<String, CompletableFuture<IdempotencyKey>> inFlight = new ConcurrentHashMap<>();
+
+    public CheckoutIdempotencyService(OrderService orderService, IdempotencyKeyRepository idempotencyKeyRepository,
+                                      @Value("${app.orders.idempotency.ttl-hours:24}") long ttlHours,
+                                      @Value("${app.orders.idempotency.index-size:100000}") long indexSize,
+                                      @Value("${app.orders.idempotency.max-wait-ms:30000}") long maxWaitMillis) {
+        this.orderService = orderService;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.ttl = Duration.ofHours(ttlHours);
+        this.maxWaitMillis = maxWaitMillis;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(indexSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public OrderResponse placeOrder(Long userId, Long addressId, String key) {
+        if (key.isBlank() || key.length() > 100) {
+            throw new InvalidOperationException("Idempotency-Key must be between 1 and 100 characters");
+        }
+        String indexKey = userId + ":" + key;
+
+        IdempotencyKey done = completed.getIfPresent(indexKey);
+        if (done != null) {
+            return replay(done, userId, addressId);
+        }
+
+        CompletableFuture<IdempotencyKey> attempt = new CompletableFuture<>();
+        CompletableFuture<IdempotencyKey> running = inFlight.putIfAbsent(indexKey, attempt);
+        if (running != null) {
+            return replay(await(running), userId, addressId);
+        }
+
+        try {
+            IdempotencyKey record;
+            OrderResponse order = null;
+            try {
+                order = orderService.placeOrder(userId, addressId, key);
+                record = new IdempotencyKey(null, userId, key, addressId, order.getId(), LocalDateTime.now());
+            } catch (DataIntegrityViolationException e) {
+                // The key row already exists: a checkout with this key committed earlier, on another
+                // instance or before a restart. Anything else keeps its original error
+                record = idempotencyKeyRepository.findByUserIdAndIdempotencyKey(userId, key).orElseThrow(() -> e);
+            }
+            completed.put(indexKey, record);
+            attempt.complete(record);
+            return order != null ? order : replay(record, userId, addressId);
+        } catch (RuntimeException | Error e) {
+            // Nothing was committed, so waiters get this attempt's error and a later retry runs again
+            attempt.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(indexKey, attempt);
+        }
+    }
+
+    // Deletes one batch of keys older than the TTL; returns how many were deleted
+    @Transactional
+    public int deleteExpiredBatch(int batchSize) {
+        List<Long> ids = idempotencyKeyRepository.findIdsCreatedBefore(LocalDateTime.now().minus(ttl),
+                Limit.of(batchSize));
+        if (!ids.isEmpty()) {
+            idempotencyKeyRepository.deleteAllByIdInBatch(ids);
+        }
+        return ids.size();
+    }
+
+    private OrderResponse replay(IdempotencyKey record, Long userId, Long addressId) {
+        if (!record.getAddressId().equals(addressId)) {
+            throw new InvalidOperationException("Idempotency-Key was already used for a checkout with another address");
+        }
+        return orderService.getOrderByIdFromPrimary(record.getOrderId(), userId);
+    }
+
+    private IdempotencyKey await(CompletableFuture<IdempotencyKey> running) {
+        try {
+            return running.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Checkout with this Idempotency-Key failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new DuplicateResourceException("A checkout with this Idempotency-Key is still in progress");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DuplicateResourceException("A checkout with this Idempotency-Key is still in progress");
+        }
+    }
+}
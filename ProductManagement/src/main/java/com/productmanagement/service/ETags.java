@@ -0,0 +1,38 @@
+package com.productmanagement.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+// Builds strong ETag values from entity versions
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(Object... versions) {
+        StringBuilder value = new StringBuilder();
+        for (Object version : versions) {
+            if (!value.isEmpty()) {
+                value.append('.');
+            }
+            value.append(version != null ? version : 0);
+        }
+        return value.toString();
+    }
+
+    // One short value for a list, so the header stays small however many items it covers
+    public static String aggregate(Iterable<?> parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (Object part : parts) {
+                digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '|');
+            }
+            return HexFormat.of().formatHex(digest.digest(), 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
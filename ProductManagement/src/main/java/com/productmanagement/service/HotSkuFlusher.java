@@ -0,0 +1,36 @@
+package com.productmanagement.service;
+
+import com.productmanagement.repository.InventoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class HotSkuFlusher {
+
+    private static final Logger log = LoggerFactory.getLogger(HotSkuFlusher.class);
+
+    private final HotSkuInventory hotSkuInventory;
+    private final InventoryRepository inventoryRepository;
+
+    public HotSkuFlusher(HotSkuInventory hotSkuInventory, InventoryRepository inventoryRepository) {
+        this.hotSkuInventory = hotSkuInventory;
+        this.inventoryRepository = inventoryRepository;
+    }
+
+    // Write-behind: however many sales landed since the last pass, each hot row takes one UPDATE.
+    // A failed flush is not marked, so its units are simply included in the next pass
+    @Scheduled(fixedDelayString = "${app.inventory.hot-flush-interval-ms:5}")
+    public void flush() {
+        hotSkuInventory.unflushedSales().forEach((productId, sold) -> {
+            try {
+                inventoryRepository.applySold(productId, sold);
+                hotSkuInventory.markFlushed(productId, sold);
+            } catch (DataAccessException e) {
+                log.warn("Flushing {} units of hot SKU {} failed, retrying next pass", sold, productId, e);
+            }
+        });
+    }
+}
@@ -0,0 +1,220 @@
+package com.productmanagement.service;
+
+import com.productmanagement.entity.Inventory;
+import com.productmanagement.repository.InventoryRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Authoritative stock for the products listed in app.inventory.hot-skus. Sales are guarded against
+// in-memory striped counters instead of the inventory row, and HotSkuFlusher writes the net result
+// back every few milliseconds. Empty by default, which leaves every product on the database path.
+// The counters live in this instance only: two instances listing the same hot SKU would each sell its
+// full quantity, so hot SKUs require a single application instance
+@Component
+public class HotSkuInventory implements SmartInitializingSingleton {
+
+    private static final Logger log = LoggerFactory.getLogger(HotSkuInventory.class);
+
+    private final InventoryRepository inventoryRepository;
+    private final InventoryReservationService reservationService;
+    private final Map<Long, StripedStock> stocks = new ConcurrentHashMap<>();
+
+    @Value("${app.inventory.hot-skus:}")
+    private Set<Long> hotProductIds;
+
+    @Value("${app.inventory.hot-stripes:16}")
+    private int stripes;
+
+    public HotSkuInventory(InventoryRepository inventoryRepository,
+                           InventoryReservationService reservationService) {
+        this.inventoryRepository = inventoryRepository;
+        this.reservationService = reservationService;
+    }
+
+    // Runs before the web server starts, so no request can sell a hot product until its counter is
+    // rebuilt. Sales that committed but were never flushed are recovered from order_items first
+    @Override
+    public void afterSingletonsInstantiated() {
+        int backfilled = inventoryRepository.backfillSoldTotal();
+        if (backfilled > 0) {
+            log.info("Backfilled sold_total for {} inventory rows from order_items", backfilled);
+        }
+        for (Long productId : hotProductIds) {
+            inventoryRepository.reconcileSold(productId);
+            // Hot products take no cart holds, so any left from before are returned to the stock
+            reservationService.releaseAllForProduct(productId);
+            Inventory inventory = inventoryRepository.findByProductId(productId).orElse(null);
+            if (inventory == null) {
+                log.warn("Ignoring hot SKU {}: no inventory row", productId);
+                continue;
+            }
+            stocks.put(productId, new StripedStock(stripes, inventory.getQuantity()));
+            log.info("Hot SKU {} serving {} units from memory", productId, inventory.getQuantity());
+        }
+    }
+
+    public boolean isHot(Long productId) {
+        return stocks.containsKey(productId);
+    }
+
+    public int available(Long productId) {
+        return (int) stocks.get(productId).total();
+    }
+
+    // Takes every line or none. When the surrounding transaction rolls back the units are returned,
+    // and the flusher writes the corrected net figure on its next pass
+    public boolean tryTake(Map<Long, Integer> quantitiesByProductId) {
+        List<Map.Entry<Long, Integer>> lines = new ArrayList<>(quantitiesByProductId.entrySet());
+        int taken = 0;
+        while (taken < lines.size() && stocks.get(lines.get(taken).getKey()).take(lines.get(taken).getValue())) {
+            taken++;
+        }
+        if (taken < lines.size()) {
+            lines.subList(0, taken).forEach(line -> stocks.get(line.getKey()).giveBack(line.getValue()));
+            return false;
+        }
+        afterRollback(() -> lines.forEach(line -> stocks.get(line.getKey()).giveBack(line.getValue())));
+        return true;
+    }
+
+    // Moves the counter to an absolute stock level set by an admin and returns the applied
+    // difference, which the caller writes to the inventory row in the same transaction
+    public int restock(Long productId, int quantity) {
+        StripedStock stock = stocks.get(productId);
+        // Units sold while this runs are not undone, so a concurrent sale can leave less to remove
+        int delta = (int) stock.adjust(quantity - stock.total());
+        afterRollback(() -> stock.adjust(-delta));
+        return delta;
+    }
+
+    // Units sold since the last successful flush, per product
+    Map<Long, Long> unflushedSales() {
+        Map<Long, Long> sales = new HashMap<>();
+        stocks.forEach((productId, stock) -> {
+            long sold = stock.unflushed();
+            if (sold != 0) {
+                sales.put(productId, sold);
+            }
+        });
+        return sales;
+    }
+
+    void markFlushed(Long productId, long sold) {
+        stocks.get(productId).markFlushed(sold);
+    }
+
+    private void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    // Stock split across cache-line-padded slots. A buyer CAS-decrements the slot its random start
+    // lands on and only walks to neighbours when that slot runs dry, so concurrent sales of one SKU
+    // rarely contend on the same word. A slot never goes below zero, which is the oversell guard
+    private static final class StripedStock {
+
+        // 8 longs = 64 bytes, so each live slot sits on its own cache line
+        private static final int PADDING = 8;
+
+        private final AtomicLongArray slots;
+        private final int stripes;
+        private final LongAdder sold = new LongAdder();
+        // Only touched by the flusher thread
+        private long flushed;
+
+        StripedStock(int stripes, long initial) {
+            this.stripes = Math.max(stripes, 1);
+            this.slots = new AtomicLongArray(this.stripes * PADDING);
+            long share = Math.max(initial, 0) / this.stripes;
+            for (int stripe = 0; stripe < this.stripes; stripe++) {
+                slots.set(stripe * PADDING, share);
+            }
+            slots.addAndGet(0, Math.max(initial, 0) - share * this.stripes);
+        }
+
+        boolean take(int quantity) {
+            int start = ThreadLocalRandom.current().nextInt(stripes);
+            long taken = drain(quantity, start);
+            if (taken < quantity) {
+                // Not enough across all slots: hand back the partial take
+                slots.addAndGet(start * PADDING, taken);
+                return false;
+            }
+            sold.add(quantity);
+            return true;
+        }
+
+        void giveBack(int quantity) {
+            slots.addAndGet(ThreadLocalRandom.current().nextInt(stripes) * PADDING, quantity);
+            sold.add(-quantity);
+        }
+
+        // Restocking is not a sale, so it leaves the sold counter alone; returns the applied change
+        long adjust(long delta) {
+            int start = ThreadLocalRandom.current().nextInt(stripes);
+            if (delta >= 0) {
+                slots.addAndGet(start * PADDING, delta);
+                return delta;
+            }
+            return -drain(-delta, start);
+        }
+
+        // Takes up to amount units, starting at one slot and walking on while slots run dry
+        private long drain(long amount, int start) {
+            long remaining = amount;
+            for (int step = 0; step < stripes && remaining > 0; step++) {
+                int slot = ((start + step) % stripes) * PADDING;
+                long current = slots.get(slot);
+                while (current > 0) {
+                    long portion = Math.min(current, remaining);
+                    if (slots.compareAndSet(slot, current, current - portion)) {
+                        remaining -= portion;
+                        break;
+                    }
+                    current = slots.get(slot);
+                }
+            }
+            return amount - remaining;
+        }
+
+        long total() {
+            long total = 0;
+            for (int stripe = 0; stripe < stripes; stripe++) {
+                total += slots.get(stripe * PADDING);
+            }
+            return total;
+        }
+
+        long unflushed() {
+            return sold.sum() - flushed;
+        }
+
+        void markFlushed(long amount) {
+            flushed += amount;
+        }
+    }
+}
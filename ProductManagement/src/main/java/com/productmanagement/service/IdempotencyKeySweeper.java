@@ -0,0 +1,26 @@
+package com.productmanagement.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class IdempotencyKeySweeper {
+
+    private final CheckoutIdempotencyService idempotencyService;
+
+    @Value("${app.orders.idempotency.sweep-batch-size:1000}")
+    private int batchSize;
+
+    public IdempotencyKeySweeper(CheckoutIdempotencyService idempotencyService) {
+        this.idempotencyService = idempotencyService;
+    }
+
+    @Scheduled(fixedDelayString = "${app.orders.idempotency.sweep-interval-ms:600000}")
+    public void deleteExpiredKeys() {
+        int deleted;
+        do {
+            deleted = idempotencyService.deleteExpiredBatch(batchSize);
+        } while (deleted == batchSize);
+    }
+}
@@ -0,0 +1,214 @@
+package com.productmanagement.service;
+
+import com.productmanagement.entity.Inventory;
+import com.productmanagement.entity.InventoryReservation;
+import com.productmanagement.exception.InsufficientInventoryException;
+import com.productmanagement.repository.InventoryRepository;
+import com.productmanagement.repository.InventoryReservationRepository;
+import com.productmanagement.repository.ProductRepository;
+import com.productmanagement.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class InventoryReservationService {
+
+    private final InventoryReservationRepository reservationRepository;
+    private final InventoryRepository inventoryRepository;
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+
+    @Value("${app.inventory.reservation-ttl-seconds:900}")
+    private long reservationTtlSeconds;
+
+    public InventoryReservationService(InventoryReservationRepository reservationRepository,
+                                       InventoryRepository inventoryRepository,
+                                       ProductRepository productRepository, UserRepository userRepository) {
+        this.reservationRepository = reservationRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.productRepository = productRepository;
+        this.userRepository = userRepository;
+    }
+
+    // Makes the user's hold on a product match the cart quantity and restarts its TTL.
+    // Only the difference to the current hold touches the inventory row
+    @Transactional
+    public void holdForCart(Long userId, Long productId, int cartQuantity) {
+        InventoryReservation reservation = reservationRepository.lockByUserIdAndProductId(userId, productId)
+                .orElse(null);
+        int currentlyHeld = reservation != null ? reservation.getQuantity() : 0;
+        int delta = cartQuantity - currentlyHeld;
+
+        if (delta > 0 && inventoryRepository.reserveQuantity(productId, delta) == 0) {
+            int availableQuantity = inventoryRepository.findByProductId(productId)
+                    .map(inventory -> inventory.getQuantity() - inventory.getReserved())
+                    .orElse(0) + currentlyHeld;
+            throw new InsufficientInventoryException(
+                    "Insufficient inventory. Available: " + availableQuantity + ", Requested: " + cartQuantity
+            );
+        }
+        if (delta < 0) {
+            inventoryRepository.releaseQuantity(productId, -delta);
+        }
+
+        if (reservation == null) {
+            reservation = new InventoryReservation();
+            reservation.setUser(userRepository.getReferenceById(userId));
+            reservation.setProduct(productRepository.getReferenceById(productId));
+        }
+        reservation.setQuantity(cartQuantity);
+        reservation.setExpiresAt(LocalDateTime.now().plusSeconds(reservationTtlSeconds));
+        reservationRepository.save(reservation);
+    }
+
+    // Batch form of holdForCart: a quantity of 0 releases the hold. Reads the holds and the stock
+    // with one query each and moves every hold in one guarded update, so either all lines are held
+    // or the transaction fails
+    @Transactional
+    public void holdAllForCart(Long userId, Map<Long, Integer> cartQuantitiesByProductId) {
+        if (cartQuantitiesByProductId.isEmpty()) {
+            return;
+        }
+        Map<Long, InventoryReservation> reservationsByProductId = new HashMap<>();
+        for (InventoryReservation reservation : reservationRepository.lockByUserIdAndProductIds(userId,
+                cartQuantitiesByProductId.keySet())) {
+            reservationsByProductId.put(reservation.getProduct().getId(), reservation);
+        }
+        Map<Long, Integer> freeByProductId = new HashMap<>();
+        for (Inventory inventory : inventoryRepository.findByProductIdIn(cartQuantitiesByProductId.keySet())) {
+            freeByProductId.put(inventory.getProduct().getId(), inventory.getQuantity() - inventory.getReserved());
+        }
+
+        Map<Long, Integer> deltas = new HashMap<>();
+        List<InventoryReservation> held = new ArrayList<>();
+        List<InventoryReservation> released = new ArrayList<>();
+        LocalDateTime expiresAt = LocalDateTime.now().plusSeconds(reservationTtlSeconds);
+        for (Map.Entry<Long, Integer> line : cartQuantitiesByProductId.entrySet()) {
+            Long productId = line.getKey();
+            int cartQuantity = line.getValue();
+            InventoryReservation reservation = reservationsByProductId.get(productId);
+            int currentlyHeld = reservation != null ? reservation.getQuantity() : 0;
+            int delta = cartQuantity - currentlyHeld;
+
+            int free = freeByProductId.getOrDefault(productId, 0);
+            if (delta > free) {
+                throw new InsufficientInventoryException("Insufficient inventory for product " + productId
+                        + ". Available: " + (free + currentlyHeld) + ", Requested: " + cartQuantity);
+            }
+            if (delta != 0) {
+                deltas.put(productId, delta);
+            }
+
+            if (cartQuantity == 0) {
+                if (reservation != null) {
+                    released.add(reservation);
+                }
+                continue;
+            }
+            if (reservation == null) {
+                reservation = new InventoryReservation();
+                reservation.setUser(userRepository.getReferenceById(userId));
+                reservation.setProduct(productRepository.getReferenceById(productId));
+            }
+            reservation.setQuantity(cartQuantity);
+            reservation.setExpiresAt(expiresAt);
+            held.add(reservation);
+        }
+
+        // The check above read the stock without a lock; the guarded update is what prevents overselling
+        if (inventoryRepository.adjustReserved(deltas) != deltas.size()) {
+            throw new InsufficientInventoryException("Insufficient inventory for one or more products");
+        }
+        if (!released.isEmpty()) {
+            reservationRepository.deleteAllInBatch(released);
+        }
+        reservationRepository.saveAll(held);
+    }
+
+    @Transactional
+    public void release(Long userId, Long productId) {
+        reservationRepository.lockByUserIdAndProductId(userId, productId).ifPresent(reservation -> {
+            inventoryRepository.releaseQuantity(productId, reservation.getQuantity());
+            reservationRepository.delete(reservation);
+        });
+    }
+
+    @Transactional
+    public void releaseAll(Long userId) {
+        release(reservationRepository.lockByUserId(userId));
+    }
+
+    @Transactional
+    public void releaseAllForProduct(Long productId) {
+        release(reservationRepository.lockByProductId(productId));
+    }
+
+    // Moves the user's holds onto a pending order: the hold rows go, but exactly the order's quantities
+    // stay reserved on the inventory rows until the order is confirmed or cancelled. An intact hold
+    // needs no inventory update; one that expired is taken again and one left over is released
+    @Transactional
+    public void reserveForOrder(Long userId, Map<Long, Integer> quantitiesByProductId) {
+        Map<Long, Integer> heldByProductId = claimForCheckout(userId);
+        Map<Long, Integer> deltas = new HashMap<>();
+        quantitiesByProductId.forEach((productId, quantity) -> {
+            int delta = quantity - heldByProductId.getOrDefault(productId, 0);
+            if (delta != 0) {
+                deltas.put(productId, delta);
+            }
+        });
+        heldByProductId.forEach((productId, held) -> {
+            if (!quantitiesByProductId.containsKey(productId)) {
+                deltas.put(productId, -held);
+            }
+        });
+
+        if (inventoryRepository.adjustReserved(deltas) != deltas.size()) {
+            throw new InsufficientInventoryException(
+                    "Insufficient inventory for one or more products. Please review your cart and try again."
+            );
+        }
+    }
+
+    // Removes the user's holds and returns them so checkout can convert them into the sale
+    // in the same guarded inventory update
+    @Transactional
+    public Map<Long, Integer> claimForCheckout(Long userId) {
+        List<InventoryReservation> reservations = reservationRepository.lockByUserId(userId);
+        Map<Long, Integer> heldByProductId = quantitiesByProductId(reservations);
+        reservationRepository.deleteAllInBatch(reservations);
+        return heldByProductId;
+    }
+
+    // Releases one batch of expired holds; returns how many were released
+    @Transactional
+    public int releaseExpiredBatch(int batchSize) {
+        List<InventoryReservation> expired = reservationRepository.lockExpired(LocalDateTime.now(),
+                Limit.of(batchSize));
+        release(expired);
+        return expired.size();
+    }
+
+    private void release(List<InventoryReservation> reservations) {
+        if (reservations.isEmpty()) {
+            return;
+        }
+        inventoryRepository.releaseQuantities(quantitiesByProductId(reservations));
+        reservationRepository.deleteAllInBatch(reservations);
+    }
+
+    private Map<Long, Integer> quantitiesByProductId(List<InventoryReservation> reservations) {
+        Map<Long, Integer> quantities = new HashMap<>();
+        for (InventoryReservation reservation : reservations) {
+            quantities.merge(reservation.getProduct().getId(), reservation.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+}
@@ -0,0 +1,50 @@
+package com.productmanagement.service;
+
+import com.productmanagement.exception.InvalidOperationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+final class OrderCursor {
+
+    private static final String SEPARATOR = "|";
+    private static final LocalDateTime FIRST_PAGE_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final LocalDateTime lastDate;
+    private final Long lastId;
+
+    private OrderCursor(LocalDateTime lastDate, Long lastId) {
+        this.lastDate = lastDate;
+        this.lastId = lastId;
+    }
+
+    static String encode(LocalDateTime lastDate, Long lastId) {
+        String raw = lastDate + SEPARATOR + lastId;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static OrderCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return new OrderCursor(FIRST_PAGE_DATE, Long.MAX_VALUE);
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            return new OrderCursor(LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new InvalidOperationException("Invalid cursor");
+        }
+    }
+
+    LocalDateTime getLastDate() {
+        return lastDate;
+    }
+
+    Long getLastId() {
+        return lastId;
+    }
+}
@@ -1,116 +1,239 @@
 package com.productmanagement.service;
 
-import com.productmanagement.dto.CartItemResponse;
-import com.productmanagement.dto.CartResponse;
+import com.productmanagement.dto.CartLineView;
+import com.productmanagement.dto.CursorPageResponse;
+import com.productmanagement.dto.OrderExportRow;
+import com.productmanagement.dto.OrderItemView;
 import com.productmanagement.dto.OrderItemResponse;
 import com.productmanagement.dto.OrderResponse;
+import com.productmanagement.dto.OrderView;
 import com.productmanagement.entity.*;
-import com.productmanagement.exception.InsufficientInventoryException;
 import com.productmanagement.exception.InvalidOperationException;
 import com.productmanagement.exception.ResourceNotFoundException;
 import com.productmanagement.repository.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class OrderService {
 
     private final OrderRepository orderRepository;
     private final OrderItemRepository orderItemRepository;
-    private final UserRepository userRepository;
     private final AddressRepository addressRepository;
     private final ProductRepository productRepository;
     private final CartService cartService;
     private final ProductService productService;
+    private final InventoryReservationService reservationService;
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final InventoryRepository inventoryRepository;
+    private final HotSkuInventory hotSkuInventory;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.orders.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${app.orders.max-page-size:100}")
+    private int maxPageSize;
 
     public OrderService(OrderRepository orderRepository, OrderItemRepository orderItemRepository,
-                        UserRepository userRepository, AddressRepository addressRepository,
-                        ProductRepository productRepository, CartService cartService,
-                        ProductService productService) {
+                        AddressRepository addressRepository, ProductRepository productRepository,
+                        CartService cartService, ProductService productService,
+                        InventoryReservationService reservationService,
+                        IdempotencyKeyRepository idempotencyKeyRepository,
+                        InventoryRepository inventoryRepository, HotSkuInventory hotSkuInventory,
+                        ObjectMapper objectMapper) {
         this.orderRepository = orderRepository;
         this.orderItemRepository = orderItemRepository;
-        this.userRepository = userRepository;
         this.addressRepository = addressRepository;
         this.productRepository = productRepository;
         this.cartService = cartService;
         this.productService = productService;
+        this.reservationService = reservationService;
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.inventoryRepository = inventoryRepository;
+        this.hotSkuInventory = hotSkuInventory;
+        this.objectMapper = objectMapper;
     }
 
     @Transactional
     public OrderResponse placeOrder(Long userId, Long addressId) {
-        // Validate cart before processing
-        cartService.validateCart(userId);
+        return placeOrder(userId, addressId, null);
+    }
+
+    // With a key, its row is inserted before anything else is locked: a duplicate checkout running
+    // elsewhere then waits on the unique key and fails once this one commits
+    @Transactional
+    public OrderResponse placeOrder(Long userId, Long addressId, String idempotencyKey) {
+        IdempotencyKey keyRecord = null;
+        if (idempotencyKey != null) {
+            keyRecord = new IdempotencyKey();
+            keyRecord.setUserId(userId);
+            keyRecord.setIdempotencyKey(idempotencyKey);
+            keyRecord.setAddressId(addressId);
+            keyRecord = idempotencyKeyRepository.saveAndFlush(keyRecord);
+        }
+
+        // Load and validate all cart lines (with product and stock) in a single query
+        List<CartLineView> lines = cartService.validateCart(userId);
+        Address address = findUserAddress(userId, addressId);
+        OrderResponse order = saveOrder(address, lines, Order.OrderStatus.CONFIRMED);
+        if (keyRecord != null) {
+            keyRecord.setOrderId(order.getId());
+        }
+
+        // Convert the cart holds into the sale and reduce inventory for every line in one guarded statement
+        Map<Long, Integer> heldByProductId = reservationService.claimForCheckout(userId);
+        productService.reduceInventory(quantitiesByProductId(lines), heldByProductId);
+
+        // Clear cart after successful order
+        cartService.clearCart(userId);
+        return order;
+    }
+
+    // Asynchronous checkout, request half: the order is recorded as PENDING and the cart emptied,
+    // but stock is only taken later by AsyncCheckoutProcessor. The cart holds stay reserved for the
+    // order in the meantime, so this transaction normally does not touch an inventory row
+    @Transactional
+    public OrderResponse placePendingOrder(Long userId, Long addressId) {
+        List<CartLineView> lines = cartService.validateCart(userId);
+        Address address = findUserAddress(userId, addressId);
+        OrderResponse order = saveOrder(address, lines, Order.OrderStatus.PENDING);
+        reservationService.reserveForOrder(userId, reservedQuantities(quantitiesByProductId(lines)));
+        cartService.clearCart(userId);
+        return order;
+    }
+
+    // Takes the stock for pending orders that share no product with any other group in flight, in one
+    // guarded statement. Throws if any line no longer fits or any order is no longer PENDING, and then
+    // nothing changes
+    @Transactional
+    public void confirmPendingOrders(Collection<Long> orderIds, Map<Long, Integer> quantitiesByProductId) {
+        if (orderRepository.updateStatus(orderIds, Order.OrderStatus.PENDING, Order.OrderStatus.CONFIRMED)
+                != orderIds.size()) {
+            throw new InvalidOperationException("Orders " + orderIds + " are no longer pending");
+        }
+        productService.reduceInventory(quantitiesByProductId, reservedQuantities(quantitiesByProductId));
+    }
+
+    // Returns false when the order was already confirmed or cancelled elsewhere
+    @Transactional
+    public boolean cancelPendingOrder(Long orderId, Map<Long, Integer> quantitiesByProductId) {
+        if (orderRepository.updateStatus(List.of(orderId), Order.OrderStatus.PENDING,
+                Order.OrderStatus.CANCELLED) == 0) {
+            return false;
+        }
+        inventoryRepository.releaseQuantities(reservedQuantities(quantitiesByProductId));
+        return true;
+    }
 
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+    // Product quantities of every PENDING order, oldest first, to resume them after a restart
+    @Transactional(readOnly = true)
+    public Map<Long, Map<Long, Integer>> findPendingOrderQuantities() {
+        List<Long> orderIds = orderRepository.findIdsByStatus(Order.OrderStatus.PENDING);
+        Map<Long, Map<Long, Integer>> quantitiesByOrderId = new LinkedHashMap<>();
+        orderIds.forEach(orderId -> quantitiesByOrderId.put(orderId, new LinkedHashMap<>()));
+        if (!orderIds.isEmpty()) {
+            for (OrderItemView item : orderItemRepository.findViewsByOrderIdIn(orderIds)) {
+                quantitiesByOrderId.get(item.getOrderId()).merge(item.getProductId(), item.getQuantity(), Integer::sum);
+            }
+        }
+        return quantitiesByOrderId;
+    }
 
+    private Address findUserAddress(Long userId, Long addressId) {
         Address address = addressRepository.findById(addressId)
                 .orElseThrow(() -> new ResourceNotFoundException("Address not found with id: " + addressId));
 
         if (!address.getUser().getId().equals(userId)) {
             throw new InvalidOperationException("Address does not belong to user");
         }
+        return address;
+    }
 
-        // Get cart items
-        CartResponse cartResponse = cartService.getCart(userId);
-        if (cartResponse.getItems().isEmpty()) {
-            throw new InvalidOperationException("Cart is empty");
+    private OrderResponse saveOrder(Address address, List<CartLineView> lines, Order.OrderStatus status) {
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        for (CartLineView line : lines) {
+            totalAmount = totalAmount.add(line.getPrice().multiply(BigDecimal.valueOf(line.getQuantity())));
         }
 
         // Create order
         Order order = new Order();
-        order.setUser(user);
+        order.setUser(address.getUser());
         order.setAddress(address);
-        order.setStatus(Order.OrderStatus.CONFIRMED);
-        order.setTotalAmount(cartResponse.getTotalAmount());
+        order.setStatus(status);
+        order.setTotalAmount(totalAmount);
 
         order = orderRepository.save(order);
 
-        // Create order items and reduce inventory
-        for (CartItemResponse cartItem : cartResponse.getItems()) {
-            // Double-check inventory before reducing
-            Integer availableQuantity = productService.getProductInventory(cartItem.getProductId());
-            if (availableQuantity < cartItem.getQuantity()) {
-                throw new InsufficientInventoryException(
-                        "Insufficient inventory for product ID " + cartItem.getProductId() +
-                                ". Available: " + availableQuantity + ", Required: " + cartItem.getQuantity()
-                );
-            }
-
-            // Reduce inventory
-            productService.reduceInventory(cartItem.getProductId(), cartItem.getQuantity());
-
-            // Fetch product for order item
-            Product product = productRepository.findById(cartItem.getProductId())
-                    .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + cartItem.getProductId()));
-
-            // Create order item
+        // Create order items
+        List<OrderItem> orderItems = new ArrayList<>();
+        for (CartLineView line : lines) {
             OrderItem orderItem = new OrderItem();
             orderItem.setOrder(order);
-            orderItem.setProduct(product);
-            orderItem.setQuantity(cartItem.getQuantity());
-            orderItem.setPrice(cartItem.getPrice());
-            orderItemRepository.save(orderItem);
+            orderItem.setProduct(productRepository.getReferenceById(line.getProductId()));
+            orderItem.setQuantity(line.getQuantity());
+            orderItem.setPrice(line.getPrice());
+            orderItems.add(orderItem);
         }
+        orderItems = orderItemRepository.saveAll(orderItems);
 
-        // Clear cart after successful order
-        cartService.clearCart(userId);
+        List<OrderItemResponse> itemResponses = new ArrayList<>();
+        for (int index = 0; index < orderItems.size(); index++) {
+            itemResponses.add(convertToResponse(orderItems.get(index), lines.get(index).getProductName()));
+        }
+        return convertToResponse(order, itemResponses);
+    }
 
-        return convertToResponse(order);
+    private Map<Long, Integer> quantitiesByProductId(List<CartLineView> lines) {
+        Map<Long, Integer> quantitiesByProductId = new LinkedHashMap<>();
+        for (CartLineView line : lines) {
+            quantitiesByProductId.merge(line.getProductId(), line.getQuantity(), Integer::sum);
+        }
+        return quantitiesByProductId;
     }
 
-    public List<OrderResponse> getUserOrders(Long userId) {
-        return orderRepository.findByUserId(userId).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    // Hot SKUs take no holds, so their units are not reserved while an order is pending
+    private Map<Long, Integer> reservedQuantities(Map<Long, Integer> quantitiesByProductId) {
+        Map<Long, Integer> reserved = new HashMap<>();
+        quantitiesByProductId.forEach((productId, quantity) -> {
+            if (!hotSkuInventory.isHot(productId)) {
+                reserved.put(productId, quantity);
+            }
+        });
+        return reserved;
     }
 
+    @Transactional(readOnly = true)
+    public CursorPageResponse<OrderResponse> getUserOrders(Long userId, Order.OrderStatus status,
+                                                           LocalDateTime from, LocalDateTime to,
+                                                           String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        OrderCursor position = OrderCursor.decode(cursor);
+        List<OrderView> orders = orderRepository.findPageByUserId(userId, status, from, to,
+                position.getLastDate(), position.getLastId(), Limit.of(pageSize + 1));
+        return toPage(orders, pageSize);
+    }
+
+    @Transactional(readOnly = true)
     public OrderResponse getOrderById(Long orderId, Long userId) {
-        Order order = orderRepository.findById(orderId)
+        Order order = orderRepository.findDetailById(orderId)
                 .orElseThrow(() -> new ResourceNotFoundException("Order not found with id: " + orderId));
 
         if (!order.getUser().getId().equals(userId)) {
@@ -120,13 +243,99 @@ public class OrderService {
         return convertToResponse(order);
     }
 
-    public List<OrderResponse> getAllOrders() {
-        return orderRepository.findAllByOrderByOrderDateDesc().stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    // For checkout replays: the order may have been committed moments ago by another instance, which
+    // this instance's read-your-writes tracking never saw, so the read is not read-only and stays on
+    // the primary
+    @Transactional
+    public OrderResponse getOrderByIdFromPrimary(Long orderId, Long userId) {
+        return getOrderById(orderId, userId);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageResponse<OrderResponse> getAllOrders(Order.OrderStatus status, LocalDateTime from,
+                                                          LocalDateTime to, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        OrderCursor position = OrderCursor.decode(cursor);
+        List<OrderView> orders = orderRepository.findPage(status, from, to,
+                position.getLastDate(), position.getLastId(), Limit.of(pageSize + 1));
+        return toPage(orders, pageSize);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportOrders(Order.OrderStatus status, LocalDateTime from, LocalDateTime to,
+                             OutputStream outputStream) throws IOException {
+        // Rows arrive ordered by order id with one row per item, so only the current order is held in memory
+        try (Stream<OrderExportRow> rows = orderRepository.streamForExport(status, from, to)) {
+            Iterator<OrderExportRow> iterator = rows.iterator();
+            OrderResponse current = null;
+            while (iterator.hasNext()) {
+                OrderExportRow row = iterator.next();
+                if (current == null || !current.getId().equals(row.getOrder().getId())) {
+                    writeLine(outputStream, current);
+                    current = convertToResponse(row.getOrder(), new ArrayList<>());
+                }
+                if (row.getItem() != null) {
+                    current.getItems().add(convertToResponse(row.getItem()));
+                }
+            }
+            writeLine(outputStream, current);
+        }
+        outputStream.flush();
+    }
+
+    private void writeLine(OutputStream outputStream, OrderResponse order) throws IOException {
+        if (order != null) {
+            outputStream.write(objectMapper.writeValueAsBytes(order));
+            outputStream.write('\n');
+        }
+    }
+
+    private CursorPageResponse<OrderResponse> toPage(List<OrderView> orders, int pageSize) {
+        boolean hasMore = orders.size() > pageSize;
+        if (hasMore) {
+            orders = orders.subList(0, pageSize);
+        }
+
+        // Load the items of every order on the page with one query
+        Map<Long, List<OrderItemResponse>> itemsByOrderId = new HashMap<>();
+        if (!orders.isEmpty()) {
+            List<Long> orderIds = orders.stream().map(OrderView::getId).collect(Collectors.toList());
+            for (OrderItemView item : orderItemRepository.findViewsByOrderIdIn(orderIds)) {
+                itemsByOrderId.computeIfAbsent(item.getOrderId(), id -> new ArrayList<>())
+                        .add(convertToResponse(item));
+            }
+        }
+
+        CursorPageResponse<OrderResponse> page = new CursorPageResponse<>();
+        page.setItems(orders.stream()
+                .map(order -> convertToResponse(order, itemsByOrderId.getOrDefault(order.getId(), new ArrayList<>())))
+                .collect(Collectors.toList()));
+        page.setHasMore(hasMore);
+        OrderView last = hasMore ? orders.get(orders.size() - 1) : null;
+        page.setNextCursor(last != null ? OrderCursor.encode(last.getOrderDate(), last.getId()) : null);
+        page.setSize(pageSize);
+        page.setSort("orderDate");
+        return page;
+    }
+
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1 || size > maxPageSize) {
+            throw new InvalidOperationException("Page size must be between 1 and " + maxPageSize);
+        }
+        return size;
     }
 
     private OrderResponse convertToResponse(Order order) {
+        List<OrderItemResponse> itemResponses = order.getOrderItems().stream()
+                .map(item -> convertToResponse(item, item.getProduct().getName()))
+                .collect(Collectors.toList());
+        return convertToResponse(order, itemResponses);
+    }
+
+    private OrderResponse convertToResponse(Order order, List<OrderItemResponse> itemResponses) {
         OrderResponse response = new OrderResponse();
         response.setId(order.getId());
         response.setUserId(order.getUser().getId());
@@ -145,23 +354,53 @@ public class OrderService {
         addressResponse.setCountry(order.getAddress().getCountry());
         response.setAddress(addressResponse);
 
-        // Convert order items
-        List<OrderItem> orderItems = orderItemRepository.findByOrderId(order.getId());
-        List<OrderItemResponse> itemResponses = orderItems.stream()
-                .map(item -> {
-                    OrderItemResponse itemResponse = new OrderItemResponse();
-                    itemResponse.setId(item.getId());
-                    itemResponse.setProductId(item.getProduct().getId());
-                    itemResponse.setProductName(item.getProduct().getName());
-                    itemResponse.setQuantity(item.getQuantity());
-                    itemResponse.setPrice(item.getPrice());
-                    itemResponse.setSubtotal(item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
-                    return itemResponse;
-                })
-                .collect(Collectors.toList());
         response.setItems(itemResponses);
 
         return response;
     }
-}
 
+    private OrderItemResponse convertToResponse(OrderItem item, String productName) {
+        OrderItemResponse itemResponse = new OrderItemResponse();
+        itemResponse.setId(item.getId());
+        itemResponse.setProductId(item.getProduct().getId());
+        itemResponse.setProductName(productName);
+        itemResponse.setQuantity(item.getQuantity());
+        itemResponse.setPrice(item.getPrice());
+        itemResponse.setSubtotal(item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+        return itemResponse;
+    }
+
+    private OrderResponse convertToResponse(OrderView order, List<OrderItemResponse> itemResponses) {
+        OrderResponse response = new OrderResponse();
+        response.setId(order.getId());
+        response.setUserId(order.getUserId());
+        response.setUsername(order.getUsername());
+        response.setTotalAmount(order.getTotalAmount());
+        response.setStatus(order.getStatus());
+        response.setOrderDate(order.getOrderDate());
+
+        com.productmanagement.dto.AddressResponse addressResponse = new com.productmanagement.dto.AddressResponse();
+        addressResponse.setId(order.getAddressId());
+        addressResponse.setStreet(order.getStreet());
+        addressResponse.setCity(order.getCity());
+        addressResponse.setState(order.getState());
+        addressResponse.setZipCode(order.getZipCode());
+        addressResponse.setCountry(order.getCountry());
+        response.setAddress(addressResponse);
+
+        response.setItems(itemResponses);
+
+        return response;
+    }
+
+    private OrderItemResponse convertToResponse(OrderItemView item) {
+        OrderItemResponse itemResponse = new OrderItemResponse();
+        itemResponse.setId(item.getId());
+        itemResponse.setProductId(item.getProductId());
+        itemResponse.setProductName(item.getProductName());
+        itemResponse.setQuantity(item.getQuantity());
+        itemResponse.setPrice(item.getPrice());
+        itemResponse.setSubtotal(item.getPrice().multiply(BigDecimal.valueOf(item.getQuantity())));
+        return itemResponse;
+    }
+}
@@ -0,0 +1,61 @@
+package com.productmanagement.service;
+
+import com.productmanagement.dto.ProductSort;
+import com.productmanagement.exception.InvalidOperationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+final class ProductCursor {
+
+    private static final String SEPARATOR = ":";
+
+    private final Long lastId;
+    private final String lastName;
+
+    private ProductCursor(Long lastId, String lastName) {
+        this.lastId = lastId;
+        this.lastName = lastName;
+    }
+
+    static ProductCursor first() {
+        return new ProductCursor(0L, "");
+    }
+
+    static String encode(ProductSort sort, Long lastId, String lastName) {
+        String raw = sort.name() + SEPARATOR + lastId;
+        if (sort == ProductSort.NAME) {
+            raw += SEPARATOR + lastName;
+        }
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static ProductCursor decode(String token, ProductSort expectedSort) {
+        if (token == null || token.isBlank()) {
+            return first();
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, 3);
+            ProductSort sort = ProductSort.valueOf(parts[0]);
+            if (sort != expectedSort) {
+                throw new InvalidOperationException("Cursor was issued for sort '"
+                        + sort.name().toLowerCase() + "'");
+            }
+            Long lastId = Long.parseLong(parts[1]);
+            String lastName = sort == ProductSort.NAME ? parts[2] : "";
+            return new ProductCursor(lastId, lastName);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new InvalidOperationException("Invalid cursor");
+        }
+    }
+
+    Long getLastId() {
+        return lastId;
+    }
+
+    String getLastName() {
+        return lastName;
+    }
+}
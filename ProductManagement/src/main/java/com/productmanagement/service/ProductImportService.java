@@ -0,0 +1,220 @@
+package com.productmanagement.service;
+
+import com.productmanagement.config.CacheConfig;
+import com.productmanagement.dto.CatalogFormat;
+import com.productmanagement.dto.ImportRowError;
+import com.productmanagement.dto.ProductImportResponse;
+import com.productmanagement.dto.ProductRequest;
+import com.productmanagement.entity.Category;
+import com.productmanagement.exception.InvalidOperationException;
+import com.productmanagement.repository.CategoryRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class ProductImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImportService.class);
+
+    private static final Set<String> REQUIRED_COLUMNS = Set.of("name", "price", "categoryid");
+
+    private final ProductService productService;
+    private final CategoryRepository categoryRepository;
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Value("${app.products.import-chunk-size:1000}")
+    private int chunkSize;
+
+    @Value("${app.products.import-max-errors:1000}")
+    private int maxErrors;
+
+    public ProductImportService(ProductService productService, CategoryRepository categoryRepository,
+                                CacheManager cacheManager, ObjectMapper objectMapper, Validator validator) {
+        this.productService = productService;
+        this.categoryRepository = categoryRepository;
+        this.cacheManager = cacheManager;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    // Reads the upload row by row and commits every chunkSize valid rows, so memory is bounded by
+    // one chunk. Rows that fail validation are reported by line and skipped, as are rows the
+    // database rejects; earlier chunks and the valid rows of a failing chunk stay committed
+    public ProductImportResponse importProducts(CatalogFormat format, InputStream inputStream) throws IOException {
+        Map<Long, Category> categoriesById = categoryRepository.findAll().stream()
+                .collect(Collectors.toMap(Category::getId, Function.identity()));
+        ImportRun run = new ImportRun(categoriesById);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        try {
+            if (format == CatalogFormat.NDJSON) {
+                readNdjson(reader, run);
+            } else {
+                readCsv(reader, run);
+            }
+            run.flush();
+        } finally {
+            Cache productPages = cacheManager.getCache(CacheConfig.PRODUCT_PAGES);
+            if (productPages != null && run.report.getImported() > 0) {
+                productPages.clear();
+            }
+        }
+        return run.report;
+    }
+
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                run.accept(lineNumber, objectMapper.readValue(line, ProductRequest.class));
+            } catch (JacksonException e) {
+                run.reject(lineNumber, "Invalid JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        CsvRecordReader records = new CsvRecordReader(reader);
+        List<String> header = records.next();
+        if (header == null) {
+            throw new InvalidOperationException("CSV upload is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int index = 0; index < header.size(); index++) {
+            columns.put(header.get(index).trim().toLowerCase(Locale.ROOT).replace("_", ""), index);
+        }
+        if (!columns.keySet().containsAll(REQUIRED_COLUMNS)) {
+            throw new InvalidOperationException("CSV header must contain name, price and categoryId columns");
+        }
+
+        while (true) {
+            List<String> record;
+            try {
+                record = records.next();
+            } catch (InvalidOperationException e) {
+                // A quote that is never closed swallows the rest of the upload
+                run.reject(records.getRecordLine(), e.getMessage());
+                break;
+            }
+            if (record == null) {
+                break;
+            }
+            try {
+                ProductRequest request = new ProductRequest();
+                request.setName(column(record, columns, "name"));
+                request.setDescription(column(record, columns, "description"));
+                String price = column(record, columns, "price");
+                request.setPrice(price != null ? new BigDecimal(price) : null);
+                String categoryId = column(record, columns, "categoryid");
+                request.setCategoryId(categoryId != null ? Long.valueOf(categoryId) : null);
+                String quantity = column(record, columns, "quantity");
+                request.setQuantity(quantity != null ? Integer.valueOf(quantity) : null);
+                run.accept(records.getRecordLine(), request);
+            } catch (NumberFormatException e) {
+                run.reject(records.getRecordLine(), "Invalid number in price, categoryId or quantity");
+            }
+        }
+    }
+
+    private String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private final class ImportRun {
+
+        private final Map<Long, Category> categoriesById;
+        private final ProductImportResponse report = new ProductImportResponse();
+        private final List<ProductRequest> chunk = new ArrayList<>();
+        private final List<Long> chunkLines = new ArrayList<>();
+
+        private ImportRun(Map<Long, Category> categoriesById) {
+            this.categoriesById = categoriesById;
+        }
+
+        void accept(long line, ProductRequest request) {
+            Set<ConstraintViolation<ProductRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                reject(line, violations.iterator().next().getMessage());
+            } else if (!categoriesById.containsKey(request.getCategoryId())) {
+                reject(line, "Category not found with id: " + request.getCategoryId());
+            } else if (request.getQuantity() != null && request.getQuantity() < 0) {
+                reject(line, "Quantity cannot be negative");
+            } else {
+                chunk.add(request);
+                chunkLines.add(line);
+                if (chunk.size() >= chunkSize) {
+                    flush();
+                }
+            }
+        }
+
+        void reject(long line, String message) {
+            report.setFailed(report.getFailed() + 1);
+            if (report.getErrors().size() < maxErrors) {
+                report.getErrors().add(new ImportRowError(line, message));
+            }
+        }
+
+        void flush() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            insert(chunk, chunkLines);
+            chunk.clear();
+            chunkLines.clear();
+        }
+
+        // A chunk the database rejects is retried in halves, each in its own transaction, until
+        // the failing rows are isolated; only they are reported and the rest of the chunk is kept
+        private void insert(List<ProductRequest> requests, List<Long> lines) {
+            try {
+                productService.createProducts(requests, categoriesById);
+                report.setImported(report.getImported() + requests.size());
+            } catch (DataAccessException e) {
+                if (requests.size() == 1) {
+                    log.warn("Import line {} rejected by the database", lines.get(0), e);
+                    reject(lines.get(0), "Rejected by the database: " + e.getMostSpecificCause().getMessage());
+                    return;
+                }
+                int half = requests.size() / 2;
+                insert(requests.subList(0, half), lines.subList(0, half));
+                insert(requests.subList(half, requests.size()), lines.subList(half, lines.size()));
+            }
+        }
+    }
+}
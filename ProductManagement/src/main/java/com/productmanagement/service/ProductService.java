@@ -1,20 +1,47 @@
 package com.productmanagement.service;
 
+import com.productmanagement.config.CacheConfig;
+import com.productmanagement.dto.CatalogFormat;
+import com.productmanagement.dto.CursorPageResponse;
 import com.productmanagement.dto.ProductRequest;
 import com.productmanagement.dto.ProductResponse;
+import com.productmanagement.dto.ProductSort;
+import com.productmanagement.dto.ProductView;
 import com.productmanagement.dto.UpdateProductRequest;
 import com.productmanagement.entity.Category;
 import com.productmanagement.entity.Inventory;
 import com.productmanagement.entity.Product;
+import com.productmanagement.exception.InsufficientInventoryException;
+import com.productmanagement.exception.InvalidOperationException;
 import com.productmanagement.exception.ResourceNotFoundException;
+import com.productmanagement.repository.CartRepository;
 import com.productmanagement.repository.CategoryRepository;
 import com.productmanagement.repository.InventoryRepository;
 import com.productmanagement.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.databind.ObjectMapper;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ProductService {
@@ -22,15 +49,35 @@ public class ProductService {
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final InventoryRepository inventoryRepository;
+    private final CartRepository cartRepository;
+    private final CacheManager cacheManager;
+    private final HotSkuInventory hotSkuInventory;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.products.default-page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${app.products.max-page-size:100}")
+    private int maxPageSize;
+
+    @Value("${app.products.import-jdbc-batch-size:500}")
+    private int importJdbcBatchSize;
 
     public ProductService(ProductRepository productRepository, CategoryRepository categoryRepository,
-                          InventoryRepository inventoryRepository) {
+                          InventoryRepository inventoryRepository, CartRepository cartRepository,
+                          CacheManager cacheManager,
+                          HotSkuInventory hotSkuInventory, ObjectMapper objectMapper) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
         this.inventoryRepository = inventoryRepository;
+        this.cartRepository = cartRepository;
+        this.cacheManager = cacheManager;
+        this.hotSkuInventory = hotSkuInventory;
+        this.objectMapper = objectMapper;
     }
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PRODUCT_PAGES, allEntries = true)
     public ProductResponse createProduct(ProductRequest request) {
         Category category = categoryRepository.findById(request.getCategoryId())
                 .orElseThrow(() -> new ResourceNotFoundException("Category not found with id: " + request.getCategoryId()));
@@ -50,23 +97,63 @@ public class ProductService {
         inventory.setQuantity(request.getQuantity() != null ? request.getQuantity() : 0);
         inventoryRepository.save(inventory);
 
-        return convertToResponse(product);
+        ProductResponse response = convertToResponse(product, inventory.getQuantity());
+        response.setEtag(currentEtag(product.getId()));
+        return response;
     }
 
-    public List<ProductResponse> getAllProducts() {
-        return productRepository.findByEnabledTrue().stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    // Inserts one import chunk in its own transaction; categories come from the importer's map
+    @Transactional
+    public void createProducts(List<ProductRequest> requests, Map<Long, Category> categoriesById) {
+        List<Product> products = new ArrayList<>(requests.size());
+        List<Inventory> inventories = new ArrayList<>(requests.size());
+        for (ProductRequest request : requests) {
+            Product product = new Product();
+            product.setName(request.getName());
+            product.setDescription(request.getDescription());
+            product.setPrice(request.getPrice());
+            product.setEnabled(true);
+            product.setCategory(categoriesById.get(request.getCategoryId()));
+            products.add(product);
+
+            Inventory inventory = new Inventory();
+            inventory.setProduct(product);
+            inventory.setQuantity(request.getQuantity() != null ? request.getQuantity() : 0);
+            inventories.add(inventory);
+        }
+        productRepository.insertAll(products, inventories, importJdbcBatchSize);
     }
 
-    public List<ProductResponse> getProductsByCategory(Long categoryId) {
-        return productRepository.findByCategoryIdAndEnabledTrue(categoryId).stream()
-                .map(this::convertToResponse)
-                .collect(Collectors.toList());
+    // One aggregate query, cached and evicted with the pages, so a matching If-None-Match is
+    // answered before any page is built
+    @Transactional(readOnly = true)
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_PAGES, key = "'etag:' + #categoryId")
+    public String getProductListEtag(Long categoryId) {
+        return categoryId == null
+                ? productRepository.findListEtag()
+                : productRepository.findListEtagByCategoryId(categoryId);
+    }
+
+    // The list ETag is part of the cache key, so a cached page is never older than the ETag it is
+    // served with
+    @Transactional(readOnly = true)
+    @Cacheable(CacheConfig.PRODUCT_PAGES)
+    public CursorPageResponse<ProductResponse> getAllProducts(String cursor, Integer size, ProductSort sort,
+                                                              String etag) {
+        return getProductPage(null, cursor, size, sort);
     }
 
+    @Transactional(readOnly = true)
+    @Cacheable(CacheConfig.PRODUCT_PAGES)
+    public CursorPageResponse<ProductResponse> getProductsByCategory(Long categoryId, String cursor, Integer size,
+                                                                     ProductSort sort, String etag) {
+        return getProductPage(categoryId, cursor, size, sort);
+    }
+
+    @Transactional(readOnly = true)
+    @Cacheable(CacheConfig.PRODUCTS)
     public ProductResponse getProductById(Long id) {
-        Product product = productRepository.findById(id)
+        ProductView product = productRepository.findViewById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
         if (!product.isEnabled()) {
             throw new ResourceNotFoundException("Product not found with id: " + id);
@@ -75,8 +162,12 @@ public class ProductService {
     }
 
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.PRODUCT_PAGES, allEntries = true)
+    })
     public ProductResponse updateProduct(Long id, UpdateProductRequest request) {
-        Product product = productRepository.findById(id)
+        Product product = productRepository.findWithCategoryById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
 
         if (request.getName() != null) {
@@ -85,6 +176,7 @@ public class ProductService {
         if (request.getDescription() != null) {
             product.setDescription(request.getDescription());
         }
+        boolean repriced = request.getPrice() != null && request.getPrice().compareTo(product.getPrice()) != 0;
         if (request.getPrice() != null) {
             product.setPrice(request.getPrice());
         }
@@ -98,40 +190,180 @@ public class ProductService {
         }
 
         product = productRepository.save(product);
+        if (repriced) {
+            // Cart totals are kept incrementally, so carts holding this product are re-priced now
+            cartRepository.recalculateTotalsForProduct(id);
+        }
+
+        Inventory inventory = inventoryRepository.findByProductId(id).orElse(null);
 
+        ProductResponse response;
         // Update inventory if quantity is provided
         if (request.getQuantity() != null) {
-            Inventory inventory = inventoryRepository.findByProductId(id)
-                    .orElseThrow(() -> new ResourceNotFoundException("Inventory not found for product id: " + id));
-            inventory.setQuantity(request.getQuantity());
-            inventoryRepository.save(inventory);
+            if (inventory == null) {
+                throw new ResourceNotFoundException("Inventory not found for product id: " + id);
+            }
+            if (hotSkuInventory.isHot(id)) {
+                // The row lags the counter by unflushed sales, so only the difference is written
+                inventoryRepository.adjustQuantity(id, hotSkuInventory.restock(id, request.getQuantity()));
+                response = convertToResponse(product, hotSkuInventory.available(id));
+            } else {
+                // Units held by carts and pending orders stay promised to them, so a quantity below the
+                // reservations is refused rather than clamped or taken back from the buyers
+                if (inventoryRepository.setQuantity(id, request.getQuantity()) == 0) {
+                    throw new InvalidOperationException("Quantity cannot be lower than the " + inventory.getReserved()
+                            + " units held by carts and pending orders");
+                }
+                response = convertToResponse(product, request.getQuantity());
+            }
+        } else {
+            response = convertToResponse(product, inventory != null ? inventory.getQuantity() : 0);
         }
-
-        return convertToResponse(product);
+        response.setEtag(currentEtag(id));
+        return response;
     }
 
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.PRODUCT_PAGES, allEntries = true)
+    })
     public void deleteProduct(Long id) {
         Product product = productRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product not found with id: " + id));
         productRepository.delete(product);
     }
 
-    public Integer getProductInventory(Long productId) {
-        Inventory inventory = inventoryRepository.findByProductId(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found for product id: " + productId));
-        return inventory.getQuantity();
+    // Product pages are left to expire on their TTL: clearing every cached page on each checkout
+    // would leave the list cache nearly always cold. Only the single-product entries are evicted
+    @Transactional
+    public void reduceInventory(Map<Long, Integer> quantitiesByProductId, Map<Long, Integer> heldByProductId) {
+        Map<Long, Integer> rowQuantities = new HashMap<>();
+        Map<Long, Integer> hotQuantities = new HashMap<>();
+        quantitiesByProductId.forEach((productId, quantity) ->
+                (hotSkuInventory.isHot(productId) ? hotQuantities : rowQuantities).put(productId, quantity));
+
+        int updated = inventoryRepository.decrementQuantities(rowQuantities, heldByProductId);
+        if (updated != rowQuantities.size() || !hotSkuInventory.tryTake(hotQuantities)) {
+            throw new InsufficientInventoryException(
+                    "Insufficient inventory for one or more products. Please review your cart and try again."
+            );
+        }
+
+        Cache products = cacheManager.getCache(CacheConfig.PRODUCTS);
+        if (products != null) {
+            quantitiesByProductId.keySet().forEach(products::evict);
+        }
     }
 
-    @Transactional
-    public void reduceInventory(Long productId, Integer quantity) {
-        Inventory inventory = inventoryRepository.findByProductId(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Inventory not found for product id: " + productId));
-        inventory.setQuantity(inventory.getQuantity() - quantity);
-        inventoryRepository.save(inventory);
+    // Writes each row as it leaves the cursor. The CSV columns match what the import accepts,
+    // so an export can be edited and uploaded again
+    @Transactional(readOnly = true)
+    public void exportProducts(CatalogFormat format, OutputStream outputStream) throws IOException {
+        Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        if (format == CatalogFormat.CSV) {
+            writer.write("id,name,description,price,enabled,categoryId,categoryName,quantity\n");
+        }
+        try (Stream<ProductView> products = productRepository.streamForExport()) {
+            Iterator<ProductView> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                ProductView product = iterator.next();
+                if (format == CatalogFormat.CSV) {
+                    writer.write(product.getId() + "," + csvField(product.getName()) + ","
+                            + csvField(product.getDescription()) + "," + product.getPrice().toPlainString() + ","
+                            + product.isEnabled() + "," + csvField(product.getCategoryId()) + ","
+                            + csvField(product.getCategoryName()) + "," + csvField(product.getInventoryQuantity())
+                            + "\n");
+                } else {
+                    writer.write(objectMapper.writeValueAsString(product));
+                    writer.write('\n');
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private CursorPageResponse<ProductResponse> getProductPage(Long categoryId, String cursor, Integer size,
+                                                               ProductSort sort) {
+        int pageSize = resolvePageSize(size);
+        ProductCursor position = ProductCursor.decode(cursor, sort);
+
+        // Fetch one extra row to learn whether another page exists without a count query
+        Limit limit = Limit.of(pageSize + 1);
+        List<ProductView> products;
+        if (sort == ProductSort.NAME) {
+            products = categoryId == null
+                    ? productRepository.findEnabledAfterName(position.getLastName(), position.getLastId(), limit)
+                    : productRepository.findEnabledByCategoryAfterName(categoryId, position.getLastName(),
+                            position.getLastId(), limit);
+        } else {
+            products = categoryId == null
+                    ? productRepository.findEnabledAfterId(position.getLastId(), limit)
+                    : productRepository.findEnabledByCategoryAfterId(categoryId, position.getLastId(), limit);
+        }
+
+        boolean hasMore = products.size() > pageSize;
+        if (hasMore) {
+            products = products.subList(0, pageSize);
+        }
+
+        CursorPageResponse<ProductResponse> page = new CursorPageResponse<>();
+        page.setItems(products.stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toList()));
+        page.setHasMore(hasMore);
+        ProductView last = hasMore ? products.get(products.size() - 1) : null;
+        page.setNextCursor(last != null ? ProductCursor.encode(sort, last.getId(), last.getName()) : null);
+        page.setSize(pageSize);
+        page.setSort(sort.name().toLowerCase());
+        return page;
     }
 
-    private ProductResponse convertToResponse(Product product) {
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1 || size > maxPageSize) {
+            throw new InvalidOperationException("Page size must be between 1 and " + maxPageSize);
+        }
+        return size;
+    }
+
+    private ProductResponse convertToResponse(ProductView view) {
+        ProductResponse response = new ProductResponse();
+        response.setId(view.getId());
+        response.setName(view.getName());
+        response.setDescription(view.getDescription());
+        response.setPrice(view.getPrice());
+        response.setEnabled(view.isEnabled());
+        response.setCategoryId(view.getCategoryId());
+        response.setCategoryName(view.getCategoryName());
+        response.setInventoryQuantity(view.getInventoryQuantity() != null ? view.getInventoryQuantity() : 0);
+        response.setEtag(etagOf(view));
+        return response;
+    }
+
+    // Read back after a write, so the response carries the versions the next GET reports
+    private String currentEtag(Long productId) {
+        return productRepository.findViewById(productId).map(this::etagOf).orElse(null);
+    }
+
+    private String etagOf(ProductView view) {
+        return ETags.of(view.getVersion(), view.getInventoryVersion(), view.getCategoryVersion());
+    }
+
+    private ProductResponse convertToResponse(Product product, Integer inventoryQuantity) {
         ProductResponse response = new ProductResponse();
         response.setId(product.getId());
         response.setName(product.getName());
@@ -140,11 +372,7 @@ public class ProductService {
         response.setEnabled(product.isEnabled());
         response.setCategoryId(product.getCategory() != null ? product.getCategory().getId() : null);
         response.setCategoryName(product.getCategory() != null ? product.getCategory().getName() : null);
-
-        Inventory inventory = inventoryRepository.findByProductId(product.getId()).orElse(null);
-        response.setInventoryQuantity(inventory != null ? inventory.getQuantity() : 0);
-
+        response.setInventoryQuantity(inventoryQuantity);
         return response;
     }
 }
-
@@ -0,0 +1,27 @@
+package com.productmanagement.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ReservationSweeper {
+
+    private final InventoryReservationService reservationService;
+
+    @Value("${app.inventory.reservation-sweep-batch-size:500}")
+    private int batchSize;
+
+    public ReservationSweeper(InventoryReservationService reservationService) {
+        this.reservationService = reservationService;
+    }
+
+    // Each batch commits on its own, so a large backlog never holds row locks for long
+    @Scheduled(fixedDelayString = "${app.inventory.reservation-sweep-interval-ms:30000}")
+    public void releaseExpiredReservations() {
+        int released;
+        do {
+            released = reservationService.releaseExpiredBatch(batchSize);
+        } while (released == batchSize);
+    }
+}
@@ -10,6 +10,8 @@ import com.productmanagement.exception.ResourceNotFoundException;
 import com.productmanagement.repository.CartRepository;
 import com.productmanagement.repository.RoleRepository;
 import com.productmanagement.repository.UserRepository;
+import com.productmanagement.security.AuthenticatedUser;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
@@ -29,27 +31,29 @@ public class UserService implements UserDetailsService {
     private final RoleRepository roleRepository;
     private final CartRepository cartRepository;
     private final PasswordEncoder passwordEncoder;
+    private final InventoryReservationService reservationService;
 
     public UserService(UserRepository userRepository, RoleRepository roleRepository, 
-                       CartRepository cartRepository, PasswordEncoder passwordEncoder) {
+                       CartRepository cartRepository, PasswordEncoder passwordEncoder,
+                       InventoryReservationService reservationService) {
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
         this.cartRepository = cartRepository;
         this.passwordEncoder = passwordEncoder;
+        this.reservationService = reservationService;
     }
 
+    // Runs before the web layer opens a session, so the lazy roles need a transaction of their own.
+    // Not read-only: a user who has just registered must not be looked up on a lagging replica
     @Override
+    @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(user.getPassword())
-                .authorities(user.getRoles().stream()
-                        .map(role -> "ROLE_" + role.getName().name())
-                        .collect(Collectors.toList())
-                        .toArray(new String[0]))
-                .build();
+        return new AuthenticatedUser(user.getId(), user.getUsername(), user.getPassword(), user.isEnabled(),
+                user.getRoles().stream()
+                        .map(role -> new SimpleGrantedAuthority("ROLE_" + role.getName().name()))
+                        .collect(Collectors.toList()));
     }
 
     @Transactional
@@ -90,14 +94,14 @@ public class UserService implements UserDetailsService {
     }
 
     public UserResponse getUserById(Long id) {
-        User user = userRepository.findById(id)
+        User user = userRepository.findWithRolesById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
         return convertToResponse(user);
     }
 
     @Transactional
     public UserResponse updateUserRole(Long userId, Role.RoleType roleType) {
-        User user = userRepository.findById(userId)
+        User user = userRepository.findWithRolesById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 
         Role role = roleRepository.findByName(roleType)
@@ -115,6 +119,8 @@ public class UserService implements UserDetailsService {
         if (!userRepository.existsById(id)) {
             throw new ResourceNotFoundException("User not found with id: " + id);
         }
+        // Give held stock back before the user's cart disappears
+        reservationService.releaseAll(id);
         userRepository.deleteById(id);
     }
 
@@ -0,0 +1,115 @@
+package com.productmanagement;
+
+import com.productmanagement.entity.Address;
+import com.productmanagement.entity.Cart;
+import com.productmanagement.entity.CartItem;
+import com.productmanagement.entity.Category;
+import com.productmanagement.entity.Inventory;
+import com.productmanagement.entity.Product;
+import com.productmanagement.entity.Role;
+import com.productmanagement.entity.User;
+import com.productmanagement.repository.AddressRepository;
+import com.productmanagement.repository.CartItemRepository;
+import com.productmanagement.repository.CartRepository;
+import com.productmanagement.repository.CategoryRepository;
+import com.productmanagement.repository.ProductRepository;
+import com.productmanagement.repository.RoleRepository;
+import com.productmanagement.repository.UserRepository;
+import com.productmanagement.security.TokenService;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Writes fixtures straight through the repositories, so tests set up state without the API or
+// BCrypt. Names carry a sequence number, so test classes sharing a context never collide
+@Component
+public class TestData {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final RoleRepository roleRepository;
+    private final UserRepository userRepository;
+    private final CartRepository cartRepository;
+    private final CartItemRepository cartItemRepository;
+    private final AddressRepository addressRepository;
+    private final TokenService tokenService;
+
+    public TestData(CategoryRepository categoryRepository, ProductRepository productRepository,
+                    RoleRepository roleRepository, UserRepository userRepository, CartRepository cartRepository,
+                    CartItemRepository cartItemRepository, AddressRepository addressRepository,
+                    TokenService tokenService) {
+        this.categoryRepository = categoryRepository;
+        this.productRepository = productRepository;
+        this.roleRepository = roleRepository;
+        this.userRepository = userRepository;
+        this.cartRepository = cartRepository;
+        this.cartItemRepository = cartItemRepository;
+        this.addressRepository = addressRepository;
+        this.tokenService = tokenService;
+    }
+
+    public Category category() {
+        Category category = new Category();
+        category.setName("Test Category " + SEQUENCE.incrementAndGet());
+        return categoryRepository.save(category);
+    }
+
+    public Product product(Category category, int quantity) {
+        Product product = new Product();
+        product.setName("Test Product " + SEQUENCE.incrementAndGet());
+        product.setDescription("Created by a test");
+        product.setPrice(new BigDecimal("9.99"));
+        product.setCategory(category);
+        Inventory inventory = new Inventory();
+        inventory.setProduct(product);
+        inventory.setQuantity(quantity);
+        product.setInventory(inventory);
+        return productRepository.save(product);
+    }
+
+    public User user(Role.RoleType roleType) {
+        int number = SEQUENCE.incrementAndGet();
+        User user = new User();
+        user.setUsername("testuser" + number);
+        user.setPassword("not-a-bcrypt-hash");
+        user.setEmail("testuser" + number + "@example.com");
+        user.setFirstName("Test");
+        user.setLastName("User " + number);
+        user.setRoles(Set.of(roleRepository.findByName(roleType).orElseThrow()));
+        return userRepository.save(user);
+    }
+
+    public Address address(User user) {
+        Address address = new Address();
+        address.setUser(user);
+        address.setStreet(SEQUENCE.incrementAndGet() + " Test Street");
+        address.setCity("Springfield");
+        address.setState("IL");
+        address.setZipCode("62701");
+        address.setCountry("USA");
+        return addressRepository.save(address);
+    }
+
+    // A cart line with no hold behind it, like one whose reservation has expired
+    public void cartLine(User user, Product product, int quantity) {
+        Cart cart = cartRepository.findByUserId(user.getId()).orElseGet(() -> {
+            Cart created = new Cart();
+            created.setUser(user);
+            return cartRepository.save(created);
+        });
+        CartItem item = new CartItem();
+        item.setCart(cart);
+        item.setProduct(product);
+        item.setQuantity(quantity);
+        cartItemRepository.save(item);
+    }
+
+    public String token(User user, Role.RoleType roleType) {
+        return tokenService.issueToken(user.getId(), user.getUsername(), List.of(roleType.name()));
+    }
+}
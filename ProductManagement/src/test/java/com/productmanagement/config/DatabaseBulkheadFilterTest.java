@@ -0,0 +1,55 @@
+package com.productmanagement.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DatabaseBulkheadFilterTest {
+
+    private DatabaseBulkheadFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        filter = new DatabaseBulkheadFilter(2, 10, new JsonMapper());
+    }
+
+    @Test
+    void releasesPermitWhenHandlerReturns() throws Exception {
+        filter.doFilter(request(), new MockHttpServletResponse(), (request, response) -> { });
+
+        assertThat(filter.getAvailablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void holdsPermitUntilStreamedResponseCompletes() throws Exception {
+        MockHttpServletRequest request = request();
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        assertThat(filter.getAvailablePermits()).isEqualTo(1);
+        request.getAsyncContext().complete();
+        assertThat(filter.getAvailablePermits()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsWhenStreamsHoldEveryPermit() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            filter.doFilter(request(), new MockHttpServletResponse(), (req, res) -> req.startAsync());
+        }
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(), response, (req, res) -> { });
+        assertThat(response.getStatus()).isEqualTo(503);
+        assertThat(filter.getRejectedCount()).isEqualTo(1);
+    }
+
+    private MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/export");
+        request.setServletPath("/api/products/export");
+        request.setAsyncSupported(true);
+        return request;
+    }
+}
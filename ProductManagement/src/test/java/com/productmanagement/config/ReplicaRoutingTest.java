@@ -0,0 +1,135 @@
+package com.productmanagement.config;
+
+import com.productmanagement.security.AuthenticatedUser;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Two in-memory H2 databases stand in for the primary and the replica. Each holds a marker row
+// naming itself, so a query shows where a transaction ran. Replication lag is set directly on
+// ReplicaRouting; the lag monitor's own heartbeat only runs once at startup
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaRoutingTest.PRIMARY_URL,
+        "app.datasource.replica.url=" + ReplicaRoutingTest.REPLICA_URL,
+        "app.datasource.replica.max-lag-ms=5000",
+        "app.datasource.replica.heartbeat-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+class ReplicaRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final long USER_ID = 1001L;
+    private static final long OTHER_USER_ID = 1002L;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReplicaRouting replicaRouting;
+
+    @BeforeAll
+    static void createMarkers() throws SQLException {
+        createMarker(PRIMARY_URL, "primary");
+        createMarker(REPLICA_URL, "replica");
+        // Nothing replicates into it, so the startup heartbeat finds no row and reports the replica as lagging
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS replication_heartbeat "
+                    + "(id INT PRIMARY KEY, beat_at BIGINT NOT NULL)");
+        }
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        replicaRouting.recordHeartbeat(System.currentTimeMillis());
+
+        assertThat(database(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void writeTransactionsUseThePrimary() {
+        replicaRouting.recordHeartbeat(System.currentTimeMillis());
+
+        assertThat(database(false)).isEqualTo("primary");
+    }
+
+    @Test
+    void readsStayOnThePrimaryUntilTheReplicaHasTheUsersWrite() throws InterruptedException {
+        replicaRouting.recordHeartbeat(System.currentTimeMillis());
+        authenticate(USER_ID);
+        long beforeWrite = System.currentTimeMillis();
+        Thread.sleep(5);
+        database(false);
+
+        // The replica has applied a heartbeat from before the write, but not the write itself
+        replicaRouting.recordHeartbeat(beforeWrite);
+        assertThat(database(true)).isEqualTo("primary");
+
+        authenticate(OTHER_USER_ID);
+        assertThat(database(true)).isEqualTo("replica");
+
+        authenticate(USER_ID);
+        Thread.sleep(5);
+        replicaRouting.recordHeartbeat(System.currentTimeMillis());
+        assertThat(database(true)).isEqualTo("replica");
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhenTheReplicaLagsTooFar() {
+        replicaRouting.recordHeartbeat(System.currentTimeMillis() - replicaRouting.getMaxLagMillis() - 1000);
+
+        assertThat(database(true)).isEqualTo("primary");
+
+        replicaRouting.recordHeartbeat(System.currentTimeMillis());
+        assertThat(database(true)).isEqualTo("replica");
+    }
+
+    private String database(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status -> (String) entityManager
+                .createNativeQuery("SELECT name FROM routing_marker")
+                .getSingleResult());
+    }
+
+    private static void authenticate(long userId) {
+        AuthenticatedUser user = new AuthenticatedUser(userId, "user" + userId, null, true, List.of());
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+
+    private static void createMarker(String url, String name) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS routing_marker (name VARCHAR(20) NOT NULL)");
+            statement.execute("DELETE FROM routing_marker");
+            statement.execute("INSERT INTO routing_marker (name) VALUES ('" + name + "')");
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.productmanagement.controller;
+
+import com.productmanagement.TestData;
+import com.productmanagement.config.CacheConfig;
+import com.productmanagement.entity.Category;
+import com.productmanagement.entity.Role;
+import com.productmanagement.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.RestClient;
+import tools.jackson.databind.JsonNode;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The product list reads a page as one DTO projection, so its statement count must not depend on
+// how many products the page holds, and a conditional request it answers with 304 reads no page
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class ProductPageStatementCountTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private RestClient client;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Category category = testData.category();
+        for (int i = 0; i < 60; i++) {
+            testData.product(category, 10);
+        }
+        User user = testData.user(Role.RoleType.USER);
+        client = RestClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + testData.token(user, Role.RoleType.USER))
+                .build();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        // The fixtures are written past the service, so nothing evicted the cached list ETag
+        cacheManager.getCache(CacheConfig.PRODUCT_PAGES).clear();
+    }
+
+    @Test
+    void pageSizeDoesNotChangeStatementCount() {
+        long smallPage = statementsForPage(1);
+        long largePage = statementsForPage(50);
+
+        assertThat(smallPage).isPositive();
+        assertThat(largePage).isEqualTo(smallPage);
+    }
+
+    @Test
+    void notModifiedListDoesNotReadThePage() {
+        String etag = client.get().uri("/api/products?size=50").retrieve().toBodilessEntity()
+                .getHeaders().getETag();
+        cacheManager.getCache(CacheConfig.PRODUCT_PAGES).clear();
+        statistics.clear();
+
+        HttpStatusCode status = client.get()
+                .uri("/api/products?size=50")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .retrieve()
+                .toBodilessEntity()
+                .getStatusCode();
+
+        assertThat(status).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private long statementsForPage(int size) {
+        cacheManager.getCache(CacheConfig.PRODUCT_PAGES).clear();
+        statistics.clear();
+        JsonNode body = client.get()
+                .uri("/api/products?size={size}", size)
+                .retrieve()
+                .body(JsonNode.class);
+        assertThat(body.path("data").path("items").size()).isEqualTo(size);
+        return statistics.getPrepareStatementCount();
+    }
+}
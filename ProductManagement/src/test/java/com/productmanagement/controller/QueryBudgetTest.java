@@ -0,0 +1,122 @@
+package com.productmanagement.controller;
+
+import com.productmanagement.TestData;
+import com.productmanagement.entity.Address;
+import com.productmanagement.entity.Category;
+import com.productmanagement.entity.Product;
+import com.productmanagement.entity.Role;
+import com.productmanagement.entity.User;
+import com.productmanagement.service.OrderService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.client.RestClient;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Statement budgets for the hot read endpoints. Every request runs with cold caches, so the budget
+// covers the worst case, and the fixtures hold several rows per page so an N+1 shows up as an
+// overrun. Raising a budget should be a deliberate decision in review
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class QueryBudgetTest {
+
+    // List ETag aggregate, then the page
+    private static final int PRODUCT_LIST_BUDGET = 2;
+    // ETag lookup, cart row, lines joined with their products
+    private static final int CART_BUDGET = 3;
+    // Order page, then the items of every order on it
+    private static final int ORDER_HISTORY_BUDGET = 2;
+    private static final int USERS_LIST_BUDGET = 1;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private RestClient client;
+    private Statistics statistics;
+    private String userToken;
+    private String superAdminToken;
+
+    @BeforeEach
+    void setUp() {
+        Category category = testData.category();
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            products.add(testData.product(category, 100));
+        }
+
+        User user = testData.user(Role.RoleType.USER);
+        Address address = testData.address(user);
+        for (int order = 0; order < 5; order++) {
+            testData.cartLine(user, products.get(order), 1);
+            testData.cartLine(user, products.get((order + 1) % products.size()), 2);
+            orderService.placeOrder(user.getId(), address.getId());
+        }
+        for (Product product : products) {
+            testData.cartLine(user, product, 1);
+        }
+        for (int i = 0; i < 5; i++) {
+            testData.user(Role.RoleType.USER);
+        }
+
+        client = RestClient.create("http://localhost:" + port);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        userToken = testData.token(user, Role.RoleType.USER);
+        superAdminToken = testData.token(testData.user(Role.RoleType.SUPER_ADMIN), Role.RoleType.SUPER_ADMIN);
+    }
+
+    @Test
+    void productListStaysWithinBudget() {
+        assertThat(statementsFor("/api/products?size=20", userToken)).isLessThanOrEqualTo(PRODUCT_LIST_BUDGET);
+    }
+
+    @Test
+    void cartStaysWithinBudget() {
+        assertThat(statementsFor("/api/cart", userToken)).isLessThanOrEqualTo(CART_BUDGET);
+    }
+
+    @Test
+    void orderHistoryStaysWithinBudget() {
+        assertThat(statementsFor("/api/orders?size=20", userToken)).isLessThanOrEqualTo(ORDER_HISTORY_BUDGET);
+    }
+
+    @Test
+    void usersListStaysWithinBudget() {
+        assertThat(statementsFor("/api/users", superAdminToken)).isLessThanOrEqualTo(USERS_LIST_BUDGET);
+    }
+
+    private long statementsFor(String uri, String token) {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        entityManagerFactory.getCache().evictAll();
+        statistics.clear();
+        client.get()
+                .uri(uri)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .retrieve()
+                .toBodilessEntity();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,77 @@
+package com.productmanagement.repository;
+
+import com.productmanagement.entity.Inventory;
+import com.productmanagement.entity.Product;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class InventoryRepositoryTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void adjustReservedShrinksHoldsOnStockCutBelowReserved() {
+        Long productId = createProduct(3, 5);
+
+        int updated = transactionTemplate.execute(status -> inventoryRepository.adjustReserved(Map.of(productId, -1)));
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(reserved(productId)).isEqualTo(4);
+    }
+
+    @Test
+    void adjustReservedRejectsGrowthBeyondFreeStock() {
+        Long productId = createProduct(5, 3);
+
+        int updated = transactionTemplate.execute(status -> inventoryRepository.adjustReserved(Map.of(productId, 3)));
+
+        assertThat(updated).isZero();
+        assertThat(reserved(productId)).isEqualTo(3);
+    }
+
+    @Test
+    void adjustReservedMovesEveryLineThatFits() {
+        Long shrinking = createProduct(2, 4);
+        Long growing = createProduct(10, 4);
+
+        int updated = transactionTemplate.execute(status ->
+                inventoryRepository.adjustReserved(Map.of(shrinking, -4, growing, 6)));
+
+        assertThat(updated).isEqualTo(2);
+        assertThat(reserved(shrinking)).isZero();
+        assertThat(reserved(growing)).isEqualTo(10);
+    }
+
+    private Long createProduct(int quantity, int reserved) {
+        Product product = new Product();
+        product.setName("Inventory test product");
+        product.setPrice(new BigDecimal("9.99"));
+        Inventory inventory = new Inventory();
+        inventory.setProduct(product);
+        inventory.setQuantity(quantity);
+        inventory.setReserved(reserved);
+        product.setInventory(inventory);
+        return productRepository.save(product).getId();
+    }
+
+    private int reserved(Long productId) {
+        return inventoryRepository.findByProductId(productId).orElseThrow().getReserved();
+    }
+}
@@ -0,0 +1,101 @@
+package com.productmanagement.service;
+
+import com.productmanagement.dto.OrderItemResponse;
+import com.productmanagement.dto.OrderResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AsyncCheckoutProcessorTest {
+
+    private static final long ORDER_ID = 42L;
+
+    private OrderService orderService;
+    private AsyncCheckoutProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        orderService = mock(OrderService.class);
+        processor = new AsyncCheckoutProcessor(orderService, 10, 1, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(processor, "batchSize", 100);
+        ReflectionTestUtils.setField(processor, "maxAttempts", 3);
+        ReflectionTestUtils.setField(processor, "retryDelayMillis", 50L);
+        ReflectionTestUtils.setField(processor, "maxRetryDelayMillis", 1000L);
+
+        OrderItemResponse item = new OrderItemResponse();
+        item.setProductId(7L);
+        item.setQuantity(1);
+        OrderResponse order = new OrderResponse();
+        order.setId(ORDER_ID);
+        order.setItems(List.of(item));
+        when(orderService.placePendingOrder(1L, 1L)).thenReturn(order);
+    }
+
+    @AfterEach
+    void tearDown() {
+        processor.destroy();
+    }
+
+    @Test
+    void failedConfirmationWaitsBeforeItIsRetried() throws InterruptedException {
+        doThrow(new IllegalStateException("database down"))
+                .when(orderService).confirmPendingOrders(anyCollection(), anyMap());
+        processor.submit(1L, 1L);
+
+        // All passes run well inside the 50 ms backoff
+        for (int pass = 0; pass < 10; pass++) {
+            processor.drain();
+        }
+
+        verify(orderService, times(1)).confirmPendingOrders(anyCollection(), anyMap());
+    }
+
+    @Test
+    void orderIsCancelledOnceAttemptsRunOut() throws InterruptedException {
+        doThrow(new IllegalStateException("database down"))
+                .when(orderService).confirmPendingOrders(anyCollection(), anyMap());
+        processor.submit(1L, 1L);
+
+        // 50 ms, then 100 ms between the three attempts
+        drainFor(500);
+
+        verify(orderService, times(3)).confirmPendingOrders(anyCollection(), anyMap());
+        verify(orderService).cancelPendingOrder(eq(ORDER_ID), eq(Map.of(7L, 1)));
+    }
+
+    @Test
+    void orderIsConfirmedWhenARetrySucceeds() throws InterruptedException {
+        doThrow(new IllegalStateException("database down"))
+                .doNothing()
+                .when(orderService).confirmPendingOrders(anyCollection(), anyMap());
+        processor.submit(1L, 1L);
+
+        drainFor(300);
+
+        verify(orderService, times(2)).confirmPendingOrders(anyCollection(), anyMap());
+        verify(orderService, never()).cancelPendingOrder(eq(ORDER_ID), anyMap());
+    }
+
+    private void drainFor(long millis) throws InterruptedException {
+        long end = System.currentTimeMillis() + millis;
+        while (System.currentTimeMillis() < end) {
+            processor.drain();
+            Thread.sleep(5);
+        }
+    }
+}
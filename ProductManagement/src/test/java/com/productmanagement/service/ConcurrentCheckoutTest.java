@@ -0,0 +1,88 @@
+package com.productmanagement.service;
+
+import com.productmanagement.TestData;
+import com.productmanagement.entity.Address;
+import com.productmanagement.entity.Inventory;
+import com.productmanagement.entity.Product;
+import com.productmanagement.entity.Role;
+import com.productmanagement.entity.User;
+import com.productmanagement.exception.InsufficientInventoryException;
+import com.productmanagement.repository.InventoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Every buyer's cart line has no hold behind it, so the guarded inventory update at checkout is the
+// only thing standing between 200 buyers and a SKU with far fewer units
+@SpringBootTest
+@ActiveProfiles("test")
+class ConcurrentCheckoutTest {
+
+    private static final int BUYERS = 200;
+    private static final int STOCK = 25;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Test
+    void concurrentCheckoutsNeverOversell() throws Exception {
+        Product product = testData.product(testData.category(), STOCK);
+        List<User> buyers = new ArrayList<>();
+        List<Address> addresses = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            User buyer = testData.user(Role.RoleType.USER);
+            testData.cartLine(buyer, product, 1);
+            buyers.add(buyer);
+            addresses.add(testData.address(buyer));
+        }
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> checkouts = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(BUYERS)) {
+            for (int i = 0; i < BUYERS; i++) {
+                Long userId = buyers.get(i).getId();
+                Long addressId = addresses.get(i).getId();
+                checkouts.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        orderService.placeOrder(userId, addressId);
+                        return true;
+                    } catch (InsufficientInventoryException e) {
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int placed = 0;
+            for (Future<Boolean> checkout : checkouts) {
+                if (checkout.get(60, TimeUnit.SECONDS)) {
+                    placed++;
+                }
+            }
+            assertThat(placed).isEqualTo(STOCK);
+        }
+
+        Inventory inventory = inventoryRepository.findByProductId(product.getId()).orElseThrow();
+        assertThat(inventory.getQuantity()).isZero();
+        assertThat(inventory.getReserved()).isZero();
+        assertThat(inventory.getSoldTotal()).isEqualTo(STOCK);
+    }
+}
@@ -0,0 +1,62 @@
+package com.productmanagement.service;
+
+import com.productmanagement.TestData;
+import com.productmanagement.entity.Address;
+import com.productmanagement.entity.Inventory;
+import com.productmanagement.entity.Product;
+import com.productmanagement.entity.Role;
+import com.productmanagement.entity.User;
+import com.productmanagement.repository.InventoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class HotSkuInventoryTest {
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventoryReservationService reservationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void markingAProductHotKeepsTheStockOfARowThatPredatesSoldTotal() {
+        Product product = testData.product(testData.category(), 10);
+        for (int quantity = 2; quantity <= 3; quantity++) {
+            User buyer = testData.user(Role.RoleType.USER);
+            Address address = testData.address(buyer);
+            testData.cartLine(buyer, product, quantity);
+            orderService.placeOrder(buyer.getId(), address.getId());
+        }
+        // As on a database upgraded from before the column: the sales are only in order_items
+        jdbcTemplate.update("UPDATE inventory SET sold_total = NULL WHERE product_id = ?", product.getId());
+
+        HotSkuInventory hotSkuInventory = new HotSkuInventory(inventoryRepository, reservationService);
+        ReflectionTestUtils.setField(hotSkuInventory, "hotProductIds", Set.of(product.getId()));
+        ReflectionTestUtils.setField(hotSkuInventory, "stripes", 4);
+        hotSkuInventory.afterSingletonsInstantiated();
+
+        Inventory inventory = inventoryRepository.findByProductId(product.getId()).orElseThrow();
+        assertThat(inventory.getQuantity()).isEqualTo(5);
+        assertThat(inventory.getSoldTotal()).isEqualTo(5);
+        assertThat(hotSkuInventory.available(product.getId())).isEqualTo(5);
+    }
+}
@@ -0,0 +1,56 @@
+package com.productmanagement.service;
+
+import com.productmanagement.TestData;
+import com.productmanagement.dto.CatalogFormat;
+import com.productmanagement.dto.ImportRowError;
+import com.productmanagement.dto.ProductImportResponse;
+import com.productmanagement.entity.Category;
+import com.productmanagement.entity.Product;
+import com.productmanagement.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductImportServiceTest {
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Test
+    void keepsValidRowsOfChunkRejectedByDatabase() throws Exception {
+        Category category = testData.category();
+        String prefix = "Import " + System.nanoTime() + " ";
+        // The name column holds 255 characters, which validation does not check
+        String csv = "name,price,categoryId,quantity\n"
+                + prefix + "1,9.99," + category.getId() + ",1\n"
+                + prefix + "2,9.99," + category.getId() + ",2\n"
+                + prefix + "x".repeat(300) + ",9.99," + category.getId() + ",3\n"
+                + prefix + "4,9.99," + category.getId() + ",4\n"
+                + prefix + "5,9.99," + category.getId() + ",5\n";
+
+        ProductImportResponse report = productImportService.importProducts(CatalogFormat.CSV,
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+        assertThat(report.getImported()).isEqualTo(4);
+        assertThat(report.getFailed()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(ImportRowError::getLine).containsExactly(4L);
+        assertThat(report.getErrors().get(0).getMessage()).startsWith("Rejected by the database");
+        assertThat(productRepository.findAll()).extracting(Product::getName)
+                .filteredOn(name -> name.startsWith(prefix))
+                .containsExactlyInAnyOrder(prefix + "1", prefix + "2", prefix + "4", prefix + "5");
+    }
+}
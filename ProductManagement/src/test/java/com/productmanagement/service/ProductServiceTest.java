@@ -0,0 +1,101 @@
+package com.productmanagement.service;
+
+import com.productmanagement.dto.CursorPageResponse;
+import com.productmanagement.dto.ProductResponse;
+import com.productmanagement.dto.ProductSort;
+import com.productmanagement.dto.UpdateProductRequest;
+import com.productmanagement.entity.Inventory;
+import com.productmanagement.entity.Product;
+import com.productmanagement.exception.InvalidOperationException;
+import com.productmanagement.repository.InventoryRepository;
+import com.productmanagement.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductServiceTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Test
+    void updateProductRefusesQuantityBelowReservations() {
+        Long productId = createProduct(10, 4);
+
+        UpdateProductRequest request = new UpdateProductRequest();
+        request.setName("Renamed");
+        request.setQuantity(3);
+
+        assertThatThrownBy(() -> productService.updateProduct(productId, request))
+                .isInstanceOf(InvalidOperationException.class);
+        Inventory inventory = inventoryRepository.findByProductId(productId).orElseThrow();
+        assertThat(inventory.getQuantity()).isEqualTo(10);
+        assertThat(inventory.getReserved()).isEqualTo(4);
+        assertThat(productRepository.findById(productId).orElseThrow().getName()).isEqualTo("Service test product");
+    }
+
+    @Test
+    void updateProductAcceptsQuantityCoveringReservations() {
+        Long productId = createProduct(10, 4);
+
+        UpdateProductRequest request = new UpdateProductRequest();
+        request.setQuantity(4);
+
+        assertThat(productService.updateProduct(productId, request).getInventoryQuantity()).isEqualTo(4);
+        assertThat(inventoryRepository.findByProductId(productId).orElseThrow().getQuantity()).isEqualTo(4);
+    }
+
+    @Test
+    void productPageCacheSurvivesCheckout() {
+        Long productId = createProduct(10, 0);
+        String etag = productService.getProductListEtag(null);
+        CursorPageResponse<ProductResponse> page = productService.getAllProducts(null, 20, ProductSort.ID, etag);
+
+        productService.reduceInventory(Map.of(productId, 2), Map.of());
+
+        assertThat(inventoryRepository.findByProductId(productId).orElseThrow().getQuantity()).isEqualTo(8);
+        assertThat(productService.getProductListEtag(null)).isEqualTo(etag);
+        assertThat(productService.getAllProducts(null, 20, ProductSort.ID, etag)).isSameAs(page);
+    }
+
+    @Test
+    void productUpdateReturnsTheEtagOfTheNextRead() {
+        Long productId = createProduct(10, 0);
+        String listEtag = productService.getProductListEtag(null);
+
+        UpdateProductRequest request = new UpdateProductRequest();
+        request.setName("Renamed");
+        request.setQuantity(12);
+        String etag = productService.updateProduct(productId, request).getEtag();
+
+        assertThat(etag).isNotNull().isEqualTo(productService.getProductById(productId).getEtag());
+        assertThat(productService.getProductListEtag(null)).isNotEqualTo(listEtag);
+    }
+
+    private Long createProduct(int quantity, int reserved) {
+        Product product = new Product();
+        product.setName("Service test product");
+        product.setPrice(new BigDecimal("9.99"));
+        Inventory inventory = new Inventory();
+        inventory.setProduct(product);
+        inventory.setQuantity(quantity);
+        inventory.setReserved(reserved);
+        product.setInventory(inventory);
+        return productRepository.save(product).getId();
+    }
+}